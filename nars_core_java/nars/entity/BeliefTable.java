@@ -0,0 +1,402 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.entity;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import nars.inference.BudgetFunctions;
+import nars.inference.LocalRules;
+import nars.inference.UtilityFunctions;
+import nars.io.Symbols;
+import nars.main.Parameters;
+import nars.storage.Memory;
+
+/**
+ * The beliefs of a Concept, in two parts: the eternal beliefs sorted by rank,
+ * as in the former single table, and the temporal beliefs, or events, in a
+ * ring sorted by occurrence time, each with its own capacity.
+ * <p>
+ * An event arriving after all the others is put at the end of the ring in
+ * constant time, dropping the earliest one when the ring is full, so a
+ * stream of events does not disturb the eternal beliefs. The events dropped
+ * are not lost: every {@link Parameters#ETERNALIZATION_BATCH} of them are
+ * eternalized together into one eternal belief. The events in the ring are
+ * projected only when a query is answered.
+ * <p>
+ * The best belief for a query is found without evaluating every event: an
+ * event is worth at least its eternalized truth, which is the best for the
+ * most confident one, and worth more only by projection, which fades with the
+ * distance to the time of the query. So the events are visited from that time
+ * outwards, until none further away can beat the best found. Only for a
+ * "what" question, whose quality is not monotone in the confidence, are they
+ * all evaluated.
+ */
+public class BeliefTable implements Iterable<Sentence> {
+
+    /** The eternal beliefs, highest rank first */
+    private final ArrayList<Sentence> eternal = new ArrayList<>();
+    /** Capacity of the eternal part */
+    private final int eternalCapacity;
+    /** The events, from position head on, earliest occurrence first */
+    private final Sentence[] events;
+    /** Position of the earliest event in the ring */
+    private int head;
+    /** Number of events in the ring */
+    private int count;
+    /** The event with the highest rank, null if there is none */
+    private Sentence strongest;
+    /** The event with the highest confidence, null if there is none */
+    private Sentence mostConfident;
+    /** Events dropped from the ring, waiting to be eternalized */
+    private final ArrayList<Sentence> dropped = new ArrayList<>();
+
+    /**
+     * Make an empty table
+     *
+     * @param eternalCapacity The number of eternal beliefs kept
+     * @param temporalCapacity The number of events kept
+     */
+    public BeliefTable(int eternalCapacity, int temporalCapacity) {
+        this.eternalCapacity = eternalCapacity;
+        this.events = new Sentence[temporalCapacity];
+    }
+
+    /**
+     * Whether there is no belief
+     *
+     * @return Whether the table is empty
+     */
+    public boolean isEmpty() {
+        return eternal.isEmpty() && (count == 0);
+    }
+
+    /**
+     * The number of beliefs
+     *
+     * @return The size of the table
+     */
+    public int size() {
+        return eternal.size() + count;
+    }
+
+    /**
+     * The belief of highest rank, eternal or temporal
+     *
+     * @return The first belief, null if there is none
+     */
+    public Sentence first() {
+        Sentence first = eternal.isEmpty() ? null : eternal.get(0);
+        if ((strongest != null) && ((first == null) || (BudgetFunctions.rankBelief(strongest) > BudgetFunctions.rankBelief(first)))) {
+            first = strongest;
+        }
+        return first;
+    }
+
+    /**
+     * Add a new belief; an eternal one is ranked and the lowest ranked is
+     * dropped when there are too many, an event is placed by its occurrence
+     * time and the earliest is dropped when there are too many
+     *
+     * @param belief The judgment to be added
+     * @param memory Reference to the memory
+     */
+    public void add(Sentence belief, Memory memory) {
+        if (belief.isEternal()) {
+            addEternal(belief);
+        } else {
+            addEvent(belief, memory);
+        }
+    }
+
+    /**
+     * Add an eternal belief, by rank, unless an equivalent one is ranked
+     * lower
+     */
+    private void addEternal(Sentence belief) {
+        float rank1 = BudgetFunctions.rankBelief(belief);
+        int i;
+        for (i = 0; i < eternal.size(); i++) {
+            Sentence judgment2 = eternal.get(i);
+            if (rank1 >= BudgetFunctions.rankBelief(judgment2)) {
+                if (belief.equivalentTo(judgment2)) {
+                    return;
+                }
+                eternal.add(i, belief);
+                break;
+            }
+        }
+        if (eternal.size() >= eternalCapacity) {
+            while (eternal.size() > eternalCapacity) {
+                eternal.remove(eternal.size() - 1);
+            }
+        } else if (i == eternal.size()) {
+            eternal.add(belief);
+        }
+    }
+
+    /**
+     * Add an event after those occurring no later, unless an equivalent one
+     * occurs at the same time
+     */
+    private void addEvent(Sentence belief, Memory memory) {
+        long time = belief.getOccurrenceTime();
+        int i = after(time);
+        for (int j = i - 1; (j >= 0) && (event(j).getOccurrenceTime() == time); j--) {
+            if (belief.equivalentTo(event(j))) {
+                return;
+            }
+        }
+        if (count == events.length) {
+            if (i == 0) {
+                drop(belief, memory);           // earlier than all the events kept
+                return;
+            }
+            Sentence earliest = events[head];
+            events[head] = null;
+            head = (head + 1) % events.length;
+            count--;
+            i--;
+            if ((earliest == strongest) || (earliest == mostConfident)) {
+                strongest = mostConfident = null;
+                for (int j = 0; j < count; j++) {
+                    keepTop(event(j));
+                }
+            }
+            drop(earliest, memory);
+        }
+        for (int j = count; j > i; j--) {       // none when in order
+            events[(head + j) % events.length] = event(j - 1);
+        }
+        events[(head + i) % events.length] = belief;
+        count++;
+        keepTop(belief);
+    }
+
+    /**
+     * The event at a position from the earliest
+     */
+    private Sentence event(int i) {
+        return events[(head + i) % events.length];
+    }
+
+    /**
+     * Update the events of highest rank and confidence with a new one
+     */
+    private void keepTop(Sentence belief) {
+        if ((strongest == null) || (BudgetFunctions.rankBelief(belief) > BudgetFunctions.rankBelief(strongest))) {
+            strongest = belief;
+        }
+        if ((mostConfident == null) || (belief.getTruth().getConfidence() > mostConfident.getTruth().getConfidence())) {
+            mostConfident = belief;
+        }
+    }
+
+    /**
+     * Keep an event dropped from the ring, and eternalize the batch when it
+     * is full
+     */
+    private void drop(Sentence event, Memory memory) {
+        dropped.add(event);
+        if (dropped.size() >= Parameters.ETERNALIZATION_BATCH) {
+            eternalize(memory);
+        }
+    }
+
+    /**
+     * Turn the dropped events into one eternal belief: the revision of their
+     * eternalized truth values, whose weights are the confidences of the
+     * events, and of the first eternal belief, over the merged evidence; a
+     * sentence whose evidence overlaps with the others is left out
+     */
+    private void eternalize(Memory memory) {
+        Sentence last = dropped.get(dropped.size() - 1);
+        Stamp stamp = last.getStamp();
+        float weight = last.getTruth().getConfidence();
+        float positive = weight * last.getTruth().getFrequency();
+        for (int i = dropped.size() - 2; i >= 0; i--) {
+            Sentence event = dropped.get(i);
+            Stamp merged = Stamp.make(stamp, event.getStamp(), memory.getTime());
+            if (merged != null) {
+                stamp = merged;
+                float c = event.getTruth().getConfidence();
+                weight += c;
+                positive += c * event.getTruth().getFrequency();
+            }
+        }
+        dropped.clear();
+        if (!eternal.isEmpty() && eternal.get(0).getRevisible()) {
+            Sentence belief = eternal.get(0);
+            Stamp merged = Stamp.make(stamp, belief.getStamp(), memory.getTime());
+            if (merged != null) {
+                stamp = merged;
+                float w = UtilityFunctions.c2w(belief.getTruth().getConfidence());
+                weight += w;
+                positive += w * belief.getTruth().getFrequency();
+            }
+        }
+        stamp = (stamp == last.getStamp()) ? new Stamp(stamp, memory.getTime()) : stamp;
+        stamp.setEternal();
+        TruthValue truth = new TruthValue(positive / weight, UtilityFunctions.w2c(weight));
+        addEternal(new Sentence(last.getContent(), Symbols.JUDGMENT_MARK, truth, stamp));
+    }
+
+    /**
+     * Find the belief of highest quality as a solution to a query, measured by
+     * LocalRules.solutionQuality
+     *
+     * @param query The question, goal or judgment to be matched
+     * @param memory Reference to the memory
+     * @return The best belief, null if none has a positive quality
+     */
+    public Sentence best(Sentence query, Memory memory) {
+        Sentence candidate = null;
+        float currentBest = 0;
+        for (Sentence judg : eternal) {
+            float quality = LocalRules.solutionQuality(query, judg, memory);
+            if (quality > currentBest) {
+                currentBest = quality;
+                candidate = judg;
+            }
+        }
+        return bestEvent(query, candidate, currentBest, memory);
+    }
+
+    /**
+     * Find the event of highest quality as a solution to a query, so that an
+     * event is revised with the events near it and not with the eternal
+     * beliefs, which get the evidence of the events by batches
+     *
+     * @param query The event to be matched
+     * @param memory Reference to the memory
+     * @return The best event, null if none has a positive quality
+     */
+    public Sentence bestEvent(Sentence query, Memory memory) {
+        return bestEvent(query, null, 0, memory);
+    }
+
+    /**
+     * Find an event of higher quality than the best belief so far
+     *
+     * @param candidate The best belief so far, or null
+     * @param currentBest Its quality, or 0
+     * @return The best of the candidate and the events
+     */
+    private Sentence bestEvent(Sentence query, Sentence candidate, float currentBest, Memory memory) {
+        if (count == 0) {
+            return candidate;
+        }
+        float quality;
+        if ((query == null) || query.containQueryVar()) {
+            for (int i = 0; i < count; i++) {
+                quality = LocalRules.solutionQuality(query, event(i), memory);
+                if (quality > currentBest) {
+                    currentBest = quality;
+                    candidate = event(i);
+                }
+            }
+            return candidate;
+        }
+        quality = LocalRules.solutionQuality(query, mostConfident, memory);
+        if (quality > currentBest) {
+            currentBest = quality;
+            candidate = mostConfident;
+        }
+        long target = query.getOccurrenceTime();
+        if (target == Stamp.ETERNAL) {
+            return candidate;                   // all are eternalized
+        }
+        float maxConfidence = mostConfident.getTruth().getConfidence();
+        long now = memory.getTime();
+        int right = after(target - 1);
+        int left = right - 1;
+        while ((left >= 0) || (right < count)) {
+            long toLeft = (left >= 0) ? target - event(left).getOccurrenceTime() : Long.MAX_VALUE;
+            long toRight = (right < count) ? event(right).getOccurrenceTime() - target : Long.MAX_VALUE;
+            Sentence judg = (toLeft <= toRight) ? event(left--) : event(right++);
+            if (maxProjection(Math.min(toLeft, toRight), target, now) * maxConfidence <= currentBest) {
+                break;
+            }
+            quality = LocalRules.solutionQuality(query, judg, memory);
+            if (quality > currentBest) {
+                currentBest = quality;
+                candidate = judg;
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * The largest projection factor of an event occurring at a distance or
+     * further from the target time, see
+     * {@link nars.inference.TruthFunctions#temporalProjection}
+     */
+    private static float maxProjection(long distance, long target, long now) {
+        return 1.0f - distance / (float) (distance + 2 * Math.abs(target - now) + Parameters.PROJECTION_DECAY);
+    }
+
+    /**
+     * The position of the first event occurring after a time
+     */
+    private int after(long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (event(mid).getOccurrenceTime() <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The beliefs, the eternal ones by rank then the events latest first
+     *
+     * @return An iterator over the beliefs, not supporting removal
+     */
+    @Override
+    public Iterator<Sentence> iterator() {
+        return new Iterator<Sentence>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Sentence next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                return (i < eternal.size()) ? eternal.get(i) : event(size() - 1 - i);
+            }
+        };
+    }
+}
@@ -23,6 +23,7 @@
  */
 package nars.entity;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import nars.inference.BudgetFunctions;
 import nars.inference.LocalRules;
@@ -38,6 +39,8 @@ import nars.language.Equivalence;
 import nars.language.Implication;
 import nars.language.Negation;
 import nars.language.Term;
+import nars.language.TermCode;
+import nars.language.Variable;
 import nars.main.NARSBatch;
 import nars.main.Parameters;
 import nars.storage.Memory;
@@ -55,9 +58,17 @@ import nars.storage.TermLinkBag;
 public final class Concept extends Item {
 
     /**
-     * The term is the unique ID of the concept
+     * The term is the unique ID of the concept, null when it is kept as a code
      */
     private final Term term;
+    /**
+     * The term in compact form, when the configuration asks for term codes
+     */
+    private final TermCode termCode;
+    /**
+     * The term last decoded from the code, kept while it is in use elsewhere
+     */
+    private volatile WeakReference<Term> decoded;
     /**
      * Task links for indirect processing
      */
@@ -78,7 +89,7 @@ public final class Concept extends Item {
     /**
      * Sentences directly made about the term, with non-future tense
      */
-    private final ArrayList<Sentence> beliefs;
+    private final BeliefTable beliefs;
     
     //private final ArrayList<Task> anticipationList;
     private final ArrayList<Concept> anticipationList;
@@ -111,10 +122,18 @@ public final class Concept extends Item {
      */
     public Concept(Term tm, Memory memory) {
         super(tm.getName());
-        term = tm;
         this.memory = memory;
+        if (memory.getConfig().isConceptTermCodes()) {
+            term = null;
+            termCode = TermCode.encode(tm, memory.getAtoms());
+            getKeyId();                         // the bags find the Concept by it
+            key = null;                         // made again from the code when asked for
+        } else {
+            term = tm;
+            termCode = null;
+        }
         questions = new ArrayList();
-        beliefs = new ArrayList();
+        beliefs = new BeliefTable(Parameters.MAXIMUM_BELIEF_LENGTH, Parameters.MAXIMUM_TEMPORAL_BELIEF_LENGTH);
         taskLinks = new TaskLinkBag(memory);
         termLinks = new TermLinkBag(memory);
         quests = new ArrayList();
@@ -168,7 +187,8 @@ public final class Concept extends Item {
     public void processJudgment(Task task) {
         
         Sentence judg = task.getSentence();
-        Sentence oldBelief = evaluation(judg, beliefs);     
+        // an event is revised with the events near it, the eternal beliefs get it when eternalized
+        Sentence oldBelief = judg.isEternal() ? evaluation(judg) : beliefs.bestEvent(judg, memory);
         
         if (oldBelief != null) {
             Stamp newStamp = judg.getStamp();
@@ -176,9 +196,9 @@ public final class Concept extends Item {
             if (newStamp.equals(oldStamp)) {  
                 return;
             } else if (LocalRules.revisible(judg, oldBelief)) {
-                memory.newStamp = Stamp.make(newStamp, oldStamp, memory.getTime());
-                if (memory.newStamp != null) {
-                    memory.currentBelief = oldBelief;
+                memory.getContext().newStamp = Stamp.make(newStamp, oldStamp, memory.getTime());
+                if (memory.getContext().newStamp != null) {
+                    memory.getContext().currentBelief = oldBelief;
                     LocalRules.revision(judg, oldBelief, false, memory);
                 }
             }
@@ -200,7 +220,7 @@ public final class Concept extends Item {
                 for (Task desire : desires)
                     LocalRules.trySolution(judg, desire, memory);
             }
-            addToTable(judg, beliefs, Parameters.MAXIMUM_BELIEF_LENGTH);
+            beliefs.add(judg, memory);
         }
         // if the new judgment is implication generate anticipation relation in the concept of the 
         // subject and goal relation in the post condition
@@ -325,7 +345,10 @@ public final class Concept extends Item {
             questions.remove(0);    // FIFO
         }
         
-        Sentence newAnswer = evaluation(ques, beliefs);
+        Sentence newAnswer = evaluation(ques);
+        if (memory.getConfig().isTermIndex() && ques.getContent().hasVarQuery()) {
+            answerFromIndex(ques, task);
+        }
         if (newAnswer != null) {
             LocalRules.trySolution(newAnswer, task, memory);
             return newAnswer.getTruth().getExpectation();
@@ -333,6 +356,36 @@ public final class Concept extends Item {
             return 0.5f;
         }
     }
+
+    /**
+     * To answer a question with query variables by the best beliefs of the
+     * other concepts whose terms unify with it, found by the term index of the
+     * memory rather than through TermLinks; the best belief of a concept is
+     * chosen among all its eternal beliefs and events, as in evaluation
+     * <p>
+     * The beliefs of the other concepts are only read: called from
+     * directProcess, and in a parallel work cycle the updates of the concepts
+     * wait until all workers are done, see Memory.updateConcept
+     *
+     * @param ques The question
+     * @param task The task of the question
+     */
+    private void answerFromIndex(Sentence ques, Task task) {
+        for (Term t : memory.unifiableTerms(ques.getContent())) {
+            if (t.equals(getTerm())) {
+                continue;                       // evaluated above
+            }
+            Concept concept = memory.termToConcept(t);
+            if ((concept == null) || concept.beliefs.isEmpty()) {
+                continue;                       // forgotten, or no belief
+            }
+            Sentence belief = concept.evaluation(ques);
+            if ((belief != null)
+                    && Variable.unify(Symbols.VAR_QUERY, ques.getContent().clone(), belief.getContent().clone())) {
+                LocalRules.trySolution(belief, task, memory);
+            }
+        }
+    }
     
     /**
      * For procedural learning, goal processing and 
@@ -341,7 +394,7 @@ public final class Concept extends Item {
     private void processGoal(Task task){
         
         if(task.getContent() instanceof Negation){
-            memory.currentTask = task;
+            memory.getContext().currentTask = task;
             Task newTask = StructuralRules.transformNegation(task, memory);
             Concept c = memory.getConcept(newTask.getContent());
             
@@ -371,7 +424,7 @@ public final class Concept extends Item {
         // if the budget of the task is above the threshold 
         if(task.getBudget().aboveThreshold()){
             // select the belief with the highest confidence to offer the new solution
-            belief = evaluation(task.getSentence(), beliefs);
+            belief = evaluation(task.getSentence());
             // go over the question to see if the task can be a good solution for the question
             for(Task iQuest : getQuests())
                 LocalRules.trySolution(task.getSentence(), iQuest, memory);
@@ -392,7 +445,7 @@ public final class Concept extends Item {
             // if the projected goal is not null
             if(projectedGoal != null){
                 
-                memory.currentBelief = projectedGoal;
+                memory.getContext().currentBelief = projectedGoal;
              
                 LocalRules.revision(task.getSentence(), projectedGoal, false, memory);
                 
@@ -515,7 +568,7 @@ public final class Concept extends Item {
                             if(bestop == null)
                                 bestop = c;
                             // if not null, check if the current relation gives better solution
-                            else if(c.getBeliefs().get(0).getTruth().getExpectation() > bestop.getBeliefs().get(0).getTruth().getExpectation())
+                            else if(c.getBeliefs().first().getTruth().getExpectation() > bestop.getBeliefs().first().getTruth().getExpectation())
                                 bestop = c;
                             
                         }
@@ -529,7 +582,7 @@ public final class Concept extends Item {
 
                 TruthValue truth = null;
                 if(bestop.getBeliefs() != null)
-                    truth = TruthFunctions.deduction(desires.get(0).getSentence().getTruth(), bestop.getBeliefs().get(0).getTruth());
+                    truth = TruthFunctions.deduction(desires.get(0).getSentence().getTruth(), bestop.getBeliefs().first().getTruth());
                         
                 if(truth != null ){
                     float priority = Parameters.DEFAULT_SUBGOAL_PRIORITY;
@@ -537,7 +590,7 @@ public final class Concept extends Item {
                     float quality = BudgetFunctions.truthToQuality(truth);
                         
                     BudgetValue budget = new BudgetValue(priority, durability, quality);
-                    Stamp stamp = new Stamp(memory.getTime());
+                    Stamp stamp = new Stamp(memory.newSerial(), memory.getTime());
                     
                     Sentence sentence = null;
                     
@@ -551,7 +604,7 @@ public final class Concept extends Item {
                     
                     Task task = new Task(sentence, budget);
                     memory.report(task.getSentence(), false, false);
-                    memory.getReasoner().getInternalBuffer().putInSequenceList(task, memory.getTime());
+                    memory.putInInternalBuffer(task);
                 }
                 
             }
@@ -560,63 +613,14 @@ public final class Concept extends Item {
     }
     
     /**
-     * Traverse belief table and find the highest quality belief using
+     * Find the belief of highest quality as a solution to a query, using
      * LocalRules.solutionQuality. Called from Concept.java and EventBuffer.java
      * 
-     * @param query
-     * @param list
-     * @return
-     */
-    public Sentence evaluation(Sentence query, ArrayList<Sentence> list) {
-        if (list == null) {
-            return null;
-        }
-        // Best option initialization
-        float currentBest = 0;
-        float beliefQuality;
-        Sentence candidate = null;
-        // Find the highest quality belief linearly 
-        for (Sentence judg : list) {
-            beliefQuality = LocalRules.solutionQuality(query, judg, memory);
-            if (beliefQuality > currentBest) {
-                currentBest = beliefQuality;
-                candidate = judg;
-            }
-        }
-        return candidate;
-    }
-    
-    /**
-     * Add a new belief (or goal) into the table Sort the beliefs/goals by rank,
-     * and remove redundant or low rank one
-     *
-     * @param newSentence The judgment to be processed
-     * @param table The table to be revised
-     * @param capacity The capacity of the table
+     * @param query The question, goal or judgment to be matched
+     * @return The best belief, or null
      */
-    public void addToTable(Sentence newSentence, ArrayList<Sentence> table, int capacity) {
-        float rank1 = BudgetFunctions.rankBelief(newSentence);    // for the new isBelief
-        Sentence judgment2;
-        float rank2;
-        int i;
-        for (i = 0; i < table.size(); i++) {
-            judgment2 = table.get(i);
-            rank2 = BudgetFunctions.rankBelief(judgment2);
-            if (rank1 >= rank2) {
-                if (newSentence.equivalentTo(judgment2)) {
-                    return;
-                }
-                table.add(i, newSentence);
-                break;
-            }
-        }
-        if (table.size() >= capacity) {
-            while (table.size() > capacity) {
-                table.remove(table.size() - 1);
-            }
-        } else if (i == table.size()) {
-            table.add(newSentence);
-        }
+    public Sentence evaluation(Sentence query) {
+        return beliefs.best(query, memory);
     }
     
     
@@ -699,7 +703,7 @@ public final class Concept extends Item {
                 if(concept.getBeliefs().isEmpty())
                     return false;
                 
-                while(concept.getBeliefs().get(0).getTruth().getExpectation() < list.get(i).getBeliefs().get(0).getTruth().getExpectation() && i < list.size() - 1)
+                while(concept.getBeliefs().first().getTruth().getExpectation() < list.get(i).getBeliefs().first().getTruth().getExpectation() && i < list.size() - 1)
                     i++;
                 
                 list.add(i, concept);
@@ -710,7 +714,7 @@ public final class Concept extends Item {
                 if(concept.getBeliefs().isEmpty())
                     return false;
                 
-                if(concept.getBeliefs().get(0).getTruth().getExpectation() < list.get(list.size() - 1).getBeliefs().get(0).getTruth().getExpectation()){
+                if(concept.getBeliefs().first().getTruth().getExpectation() < list.get(list.size() - 1).getBeliefs().first().getTruth().getExpectation()){
                     return false;
                 }else{
                     
@@ -718,7 +722,7 @@ public final class Concept extends Item {
                     
                     int i = 0;                 
                             
-                    while(concept.getBeliefs().get(0).getTruth().getExpectation() < list.get(i).getBeliefs().get(0).getTruth().getExpectation() && i < list.size() - 1)
+                    while(concept.getBeliefs().first().getTruth().getExpectation() < list.get(i).getBeliefs().first().getTruth().getExpectation() && i < list.size() - 1)
                         i++;
                     
                     list.add(i, concept);
@@ -743,7 +747,7 @@ public final class Concept extends Item {
         BudgetValue taskBudget = task.getBudget();
         TaskLink taskLink = new TaskLink(task, null, taskBudget);   // link type: SELF
         insertTaskLink(taskLink);
-        if (term instanceof CompoundTerm) {
+        if (termLinkTemplates != null) {        // the term is compound
             if (termLinkTemplates.size() > 0) {
                 BudgetValue subBudget = BudgetFunctions.distributeAmongLinks(taskBudget, termLinkTemplates.size());
                 if (subBudget.aboveThreshold()) {
@@ -799,7 +803,7 @@ public final class Concept extends Item {
                         if (concept != null) {
                             termLink1 = new TermLink(t, template, subBudget);
                             insertTermLink(termLink1);   // this termLink to that
-                            termLink2 = new TermLink(term, template, subBudget);
+                            termLink2 = new TermLink(getTerm(), template, subBudget);
                             concept.insertTermLink(termLink2);   // that termLink to this
                             if (t instanceof CompoundTerm) {
                                 concept.buildTermLinks(subBudget);
@@ -824,10 +828,41 @@ public final class Concept extends Item {
 
     /**
      * Return the associated term, called from Memory only
-     * @return The associated term
+     * @return The associated term, decoded if it is kept as a code and not
+     * still held from the last decoding
      */
     public Term getTerm() {
-        return term;
+        if (term != null) {
+            return term;
+        }
+        WeakReference<Term> ref = decoded;
+        Term t = (ref != null) ? ref.get() : null;
+        if (t == null) {
+            t = termCode.decode(memory);
+            decoded = new WeakReference<>(t);
+        }
+        return t;
+    }
+
+    /**
+     * Get the key, which is the name of the term
+     * @return The key, the name of the decoded term if it is kept as a code,
+     * which the term keeps once made
+     */
+    @Override
+    public String getKey() {
+        return (key != null) ? key : getTerm().getName();
+    }
+
+    /**
+     * Compare the codes of two Concepts kept as codes, without decoding them
+     */
+    @Override
+    public boolean sameKey(Item item) {
+        if ((termCode != null) && (item instanceof Concept) && (((Concept) item).termCode != null)) {
+            return termCode.equals(((Concept) item).termCode);
+        }
+        return super.sameKey(item);
     }
 
     /**
@@ -837,9 +872,9 @@ public final class Concept extends Item {
     @Override
     public String toString() {  // called from concept bag
         if (NARSBatch.isStandAlone()) {
-            return (super.toStringBrief() + " " + key);
+            return (super.toStringBrief() + " " + getKey());
         } else {
-            return key;
+            return getKey();
         }
     }
 
@@ -849,7 +884,7 @@ public final class Concept extends Item {
      */
     @Override
     public String toStringLong() {
-        String res = toStringBrief() + " " + key
+        String res = toStringBrief() + " " + getKey()
                 + toStringIfNotNull(termLinks, "termLinks")
                 + toStringIfNotNull(taskLinks, "taskLinks");
         res += toStringIfNotNull(null, "questions");
@@ -894,7 +929,7 @@ public final class Concept extends Item {
     @Override
     public float getQuality() {
         float linkPriority = termLinks.averagePriority();
-        float termComplexityFactor = 1.0f / term.getComplexity();
+        float termComplexityFactor = 1.0f / ((term != null) ? term.getComplexity() : termCode.getComplexity());
         return UtilityFunctions.or(linkPriority, termComplexityFactor);
     }
 
@@ -921,9 +956,9 @@ public final class Concept extends Item {
     public Sentence getBelief(Task task) {
         Sentence taskSentence = task.getSentence();
         for (Sentence belief : beliefs) {
-            memory.getRecorder().append(" * Selected Belief: " + belief + "\n");
-            memory.newStamp = Stamp.make(taskSentence.getStamp(), belief.getStamp(), memory.getTime());
-            if (memory.newStamp != null) {
+            memory.record(" * Selected Belief: " + belief + "\n");
+            memory.getContext().newStamp = Stamp.make(taskSentence.getStamp(), belief.getStamp(), memory.getTime());
+            if (memory.getContext().newStamp != null) {
                 Sentence belief2 = (Sentence) belief.clone();   // will this mess up priority adjustment?
                 return belief2;
             }
@@ -985,7 +1020,7 @@ public final class Concept extends Item {
         return desires;
     }
 
-    public ArrayList<Sentence> getBeliefs(){
+    public BeliefTable getBeliefs(){
         return beliefs;
     }
     
@@ -1013,14 +1048,14 @@ public final class Concept extends Item {
         if (currentTaskLink == null) {
             return;
         }
-        memory.currentTaskLink = currentTaskLink;
-        memory.currentBeliefLink = null;
-        memory.getRecorder().append(" * Selected TaskLink: " + currentTaskLink + "\n");
+        memory.getContext().currentTaskLink = currentTaskLink;
+        memory.getContext().currentBeliefLink = null;
+        memory.record(" * Selected TaskLink: " + currentTaskLink + "\n");
         Task task = currentTaskLink.getTargetTask();
-        memory.currentTask = task;  // one of the two places where this variable is set
+        memory.getContext().currentTask = task;  // one of the two places where this variable is set
 //      memory.getRecorder().append(" * Selected Task: " + task + "\n");    // for debugging
         if (currentTaskLink.getType() == TermLink.TRANSFORM) {
-            memory.currentBelief = null;
+            memory.getContext().currentBelief = null;
             RuleTables.transformTask(currentTaskLink, memory);  // to turn this into structural inference as below?
         } else {
             int termLinkCount = Parameters.MAX_REASONED_TERM_LINK;
@@ -1028,8 +1063,8 @@ public final class Concept extends Item {
             while (termLinkCount > 0) {
                 TermLink termLink = termLinks.takeOut(currentTaskLink, memory.getTime());
                 if (termLink != null) {
-                    memory.getRecorder().append(" * Selected TermLink: " + termLink + "\n");
-                    memory.currentBeliefLink = termLink;                 
+                    memory.record(" * Selected TermLink: " + termLink + "\n");
+                    memory.getContext().currentBeliefLink = termLink;                 
                     
                     RuleTables.reason(currentTaskLink, termLink, memory);
                     termLinks.putBack(termLink);
@@ -23,6 +23,8 @@
  */
 package nars.entity;
 
+import nars.storage.IdTable;
+
 /**
  * An item is an object that can be put into a Bag,
  * to participate in the resource competition of the system.
@@ -33,8 +35,18 @@ public abstract class Item {
 
     /** The key of the Item, unique in a Bag */
     protected String key;
+    /** The id of the key, computed on first use; 0 when not yet known */
+    private long keyId;
     /** The budget of the Item, consisting of 3 numbers */
     protected BudgetValue budget;
+    /** The Bag level the Item is filed in, -1 when it is in no Bag */
+    private int bagLevel = -1;
+    /** The previous Item in the same Bag level */
+    private Item bagPrevious;
+    /** The next Item in the same Bag level */
+    private Item bagNext;
+    /** The cycle of the last budget update by a Bag with lazy forgetting, -1 before the first */
+    private long budgetTime = -1;
 
     /** The default constructor */
     protected Item() {}
@@ -74,6 +86,35 @@ public abstract class Item {
         return key;
     }
 
+    /**
+     * Get the id of the key, as used by the name table of an id-keyed Bag
+     * @return The id of the current key
+     */
+    public long getKeyId() {
+        if (keyId == 0) {       // the key is only set during construction
+            keyId = IdTable.idOf(key);
+        }
+        return keyId;
+    }
+
+    /**
+     * Check whether the Item has a given key, once the ids are found equal
+     * @param key The key
+     * @return Whether the key of the Item is the given one
+     */
+    public boolean hasKey(String key) {
+        return getKey().equals(key);
+    }
+
+    /**
+     * Check whether two Items have the same key, once the ids are found equal
+     * @param item The other Item
+     * @return Whether the keys are equal
+     */
+    public boolean sameKey(Item item) {
+        return (item == this) || hasKey(item.getKey());
+    }
+
     /**
      * Get BudgetValue
      * @return Current BudgetValue
@@ -162,6 +203,72 @@ public abstract class Item {
         budget.setQuality(v);
     }
 
+    /**
+     * Get the Bag level the Item is filed in, maintained by
+     * {@link nars.storage.Bag}
+     * @return The level, or -1 if the Item is not in a Bag
+     */
+    public int getBagLevel() {
+        return bagLevel;
+    }
+
+    /**
+     * Set the Bag level the Item is filed in
+     * @param level The level, or -1 when the Item leaves the Bag
+     */
+    public void setBagLevel(int level) {
+        bagLevel = level;
+    }
+
+    /**
+     * Get the previous Item in the same Bag level
+     * @return The previous Item, or null at the head of the level
+     */
+    public Item getBagPrevious() {
+        return bagPrevious;
+    }
+
+    /**
+     * Set the previous Item in the same Bag level
+     * @param item The previous Item
+     */
+    public void setBagPrevious(Item item) {
+        bagPrevious = item;
+    }
+
+    /**
+     * Get the next Item in the same Bag level
+     * @return The next Item, or null at the tail of the level
+     */
+    public Item getBagNext() {
+        return bagNext;
+    }
+
+    /**
+     * Set the next Item in the same Bag level
+     * @param item The next Item
+     */
+    public void setBagNext(Item item) {
+        bagNext = item;
+    }
+
+    /**
+     * Get the cycle at which a Bag with lazy forgetting last brought the
+     * budget up to date
+     * @return The cycle, or -1 if never
+     */
+    public long getBudgetTime() {
+        return budgetTime;
+    }
+
+    /**
+     * Set the cycle at which the budget was brought up to date
+     * @param time The current cycle
+     */
+    public void setBudgetTime(long time) {
+        budgetTime = time;
+    }
+
     /**
      * Merge with another Item with identical key
      * @param that The Item to be merged
@@ -176,7 +283,7 @@ public abstract class Item {
      */
     @Override
     public String toString() {
-        return budget + " " + key ;
+        return budget + " " + getKey() ;
     }
 
     /**
@@ -184,7 +291,7 @@ public abstract class Item {
      * @return A simplified String representation of the content
      */
     public String toStringBrief() {
-        return budget.toStringBrief() + " " + key ;
+        return budget.toStringBrief() + " " + getKey() ;
     }
     
     public String toStringLong() {
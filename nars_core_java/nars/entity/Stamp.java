@@ -34,7 +34,6 @@ import nars.language.Tense;
 import static nars.language.Tense.*;
 import nars.main.Debug;
 import nars.main.Parameters;
-import nars.main.NAR;
 
 /**
  * Each Sentence has a time stamp, consisting the following components:
@@ -45,14 +44,16 @@ import nars.main.NAR;
  */
 public class Stamp implements Cloneable {
 
-    /** *  serial number, for the whole system 
-     * TODO : should it really be static?
-     * or a Stamp be a field in {@link NAR} ? */
-    private static long currentSerial = 0;
-    /** serial numbers */
+    /** serial numbers, in the order of merging, which decides what a full evidentialBase keeps */
     private long[] evidentialBase;
     /** evidentialBase baseLength */
     private int baseLength;
+    /** the distinct serial numbers, sorted, to compare evidentialBases by merging */
+    private long[] sortedBase;
+    /** one bit per serial number, so that most evidentialBases without overlap are told at once */
+    private long signature;
+    /** hash code of the sorted serial numbers */
+    private int hash;
     /** creation time of the stamp */
     private long creationTime;
     
@@ -90,26 +91,75 @@ public class Stamp implements Cloneable {
         return eternalOccurrence;
     }
     
+    /**
+     * Check whether a serial number occurs twice in two stamps together,
+     * within one of them or in both
+     * @param a The first Stamp
+     * @param b The second Stamp
+     * @return Whether the evidence overlaps
+     */
     public static boolean baseOverlap(Stamp a, Stamp b){
-        
-        long[] base1 = a.evidentialBase;
-        long[] base2 = b.evidentialBase;
-        
-        Set task_base = new LinkedHashSet(base1.length + base2.length);
-        
-        for(long base : base1){
-            if(task_base.contains(base))
-                return true;
-            task_base.add(base);
+        return a.evidenceIsCyclic() || b.evidenceIsCyclic() || overlap(a, b);
+    }
+
+    /**
+     * Check whether two stamps have a serial number in common, by their
+     * signatures, then by merging their sorted serial numbers
+     * @param a The first Stamp
+     * @param b The second Stamp
+     * @return Whether a serial number is in both
+     */
+    private static boolean overlap(Stamp a, Stamp b) {
+        if ((a.signature & b.signature) == 0) {
+            return false;
         }
-        
-        for(long base : base2){
-            if(task_base.contains(base))
+        long[] base1 = a.sortedBase;
+        long[] base2 = b.sortedBase;
+        int i = 0;
+        int j = 0;
+        while (i < base1.length && j < base2.length) {
+            if (base1[i] < base2[j]) {
+                i++;
+            } else if (base1[i] > base2[j]) {
+                j++;
+            } else {
                 return true;
-            task_base.add(base);
+            }
         }
         return false;
     }
+
+    /**
+     * Make the sorted serial numbers, the signature and the hash code from
+     * the evidentialBase, called at the end of the constructors making one
+     */
+    private void index() {
+        long[] sorted = Arrays.copyOf(evidentialBase, baseLength);
+        Arrays.sort(sorted);
+        int n = 0;
+        long bits = 0;
+        for (long serial : sorted) {
+            if (n == 0 || serial != sorted[n - 1]) {
+                sorted[n++] = serial;
+            }
+            bits |= 1L << ((serial * 0x9E3779B97F4A7C15L) >>> 58);
+        }
+        sortedBase = (n == sorted.length) ? sorted : Arrays.copyOf(sorted, n);
+        signature = bits;
+        hash = Arrays.hashCode(sortedBase);
+    }
+
+    /**
+     * Share the evidentialBase of another stamp, with what is made from it
+     * @param old The stamp whose evidentialBase is taken
+     */
+    private void share(Stamp old) {
+        baseLength = old.baseLength;
+        evidentialBase = old.evidentialBase;
+        sortedBase = old.sortedBase;
+        signature = old.signature;
+        hash = old.hash;
+    }
     
     public long getOccurrenceTime(){
         return occurrenceTime;
@@ -134,13 +184,14 @@ public class Stamp implements Cloneable {
     
     /**
      * Generate a new stamp, with a new serial number, for a new Task
+     * @param serial The serial number, from {@link nars.storage.Memory#newSerial}
      * @param time Creation time of the stamp
      */
-    public Stamp(long time) {
-        currentSerial++;
+    public Stamp(long serial, long time) {
         baseLength = 1;
         evidentialBase = new long[baseLength];
-        evidentialBase[0] = currentSerial;
+        evidentialBase[0] = serial;
+        index();
         creationTime = time;
     }
 
@@ -149,8 +200,7 @@ public class Stamp implements Cloneable {
      * @param old The stamp to be cloned
      */
     public Stamp(Stamp old) {
-        baseLength = old.length();
-        evidentialBase = old.getBase();
+        share(old);
         creationTime = old.getCreationTime();
         occurrenceTime = old.getOccurrenceTime();
     }
@@ -163,22 +213,40 @@ public class Stamp implements Cloneable {
      * @param time The current time
      */
     public Stamp(Stamp old, long time) {
-        baseLength = old.length();
-        evidentialBase = old.getBase();
+        share(old);
         creationTime = time;
         occurrenceTime = old.getOccurrenceTime();
     }
     
-    public Stamp(Tense tense, long time){
-        currentSerial++;
+    /**
+     * Generate a new stamp, with a new serial number, for a new Task in a tense
+     * @param serial The serial number, from {@link nars.storage.Memory#newSerial}
+     * @param tense The tense of the Task, null if eternal
+     * @param time Creation time of the stamp
+     */
+    public Stamp(long serial, Tense tense, long time){
         baseLength = 1;
         evidentialBase = new long[baseLength];
-        evidentialBase[0] = currentSerial;
+        evidentialBase[0] = serial;
+        index();
         this.tense = tense;
         //this.creationTime = -1;
         setCreationTime(time, Parameters.DURATION);
     }
 
+    /**
+     * Give the stamp of a new input its serial number, when the inputs are
+     * parsed before they are numbered in order
+     * @param serial The serial number, from {@link nars.storage.Memory#newSerial}
+     */
+    public void setSerial(long serial) {
+        if (baseLength != 1) {
+            throw new IllegalStateException("not the stamp of an input: " + this);
+        }
+        evidentialBase[0] = serial;
+        index();
+    }
+
     /**
      * Generate a new stamp for derived sentence by merging the two from parents
      * the first one is no shorter than the second
@@ -229,6 +297,7 @@ public class Stamp implements Cloneable {
                 j++;
             }
         }
+        index();
         
         creationTime = time;
         
@@ -240,7 +309,7 @@ public class Stamp implements Cloneable {
     
     public Stamp(long time, Tense tense, long serial, int duration){
         
-        this(tense, serial);
+        this(serial, tense, time);
         setCreationTime(time, duration);
     }
     
@@ -319,12 +388,8 @@ public class Stamp implements Cloneable {
      * @return The merged Stamp, or null
      */
     public static Stamp make(Stamp first, Stamp second, long time) {
-        for (int i = 0; i < first.length(); i++) {
-            for (int j = 0; j < second.length(); j++) {
-                if (first.get(i) == second.get(j)) {
-                    return null;
-                }
-            }
+        if (overlap(first, second)) {
+            return null;
         }
         if (first.length() > second.length()) {
             return new Stamp(first, second, time);
@@ -342,13 +407,6 @@ public class Stamp implements Cloneable {
         return new Stamp(this);
     }
 
-    /**
-     * Initialize the stamp mechanism of the system, called in Reasoner
-     */
-    public static void init() {
-        currentSerial = 0;
-    }
-
     /**
      * Return the baseLength of the evidentialBase
      * @return Length of the Stamp
@@ -366,14 +424,6 @@ public class Stamp implements Cloneable {
         return evidentialBase[i];
     }
 
-    /**
-     * Get the evidentialBase, called in this class only
-     * @return The evidentialBase of numbers
-     */
-    private long[] getBase() {
-        return evidentialBase;
-    }
-    
     /**
      * Get Directness, the shorter the basis the more direct is the derivation
      * Power value of -0.5 is subject to further research
@@ -389,8 +439,8 @@ public class Stamp implements Cloneable {
      */
     public TreeSet<Long> toSet() {
         TreeSet<Long> set = new TreeSet<>();
-        for (int i = 0; i < baseLength; i++) {
-            set.add(evidentialBase[i]);
+        for (long serial : sortedBase) {
+            set.add(serial);
         }
         return set;
     }
@@ -402,21 +452,23 @@ public class Stamp implements Cloneable {
      */
     @Override
     public boolean equals(Object that) {
+        if (that == this) {
+            return true;
+        }
         if (!(that instanceof Stamp)) {
             return false;
         }
-        TreeSet<Long> set1 = toSet();
-        TreeSet<Long> set2 = ((Stamp) that).toSet();
-        return (set1.containsAll(set2) && set2.containsAll(set1));
+        Stamp s = (Stamp) that;
+        return (hash == s.hash) && Arrays.equals(sortedBase, s.sortedBase);
     }
 
     /**
-     * The hash code of Stamp
+     * The hash code of Stamp, from the serial numbers only, as equals
      * @return The hash code
      */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return hash;
     }
 
     /**
@@ -452,15 +504,7 @@ public class Stamp implements Cloneable {
     }
     
     public boolean evidenceIsCyclic(){
-        
-        TreeSet<Long> taskBase = new TreeSet(); 
-        
-        for(long l : evidentialBase){
-            if(!taskBase.add(l))
-                return true;
-        }
-        
-        return false;
+        return sortedBase.length < baseLength;
     }
     
 }
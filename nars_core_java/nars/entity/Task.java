@@ -278,7 +278,7 @@ public class Task extends Item{
      */
     public double getAchievingLevel(Concept c){
         if (this.sentence.isJudgment() || this.sentence.isGoal()){
-            Sentence MatchBelief = c.getBeliefs().get(0);
+            Sentence MatchBelief = c.getBeliefs().first();
             if (MatchBelief != null){
                 return 1 - Math.abs(this.sentence.getTruth().getExpectation() - MatchBelief.getTruth().getExpectation());
             }
@@ -34,18 +34,32 @@ import nars.main.Parameters;
  */
 public class TaskLink extends TermLink {
 
+    /**
+     * Number of slots of the index of the records, a power of two at least
+     * twice the number of records
+     */
+    private static final int SLOTS = Integer.highestOneBit(2 * Parameters.TERM_LINK_RECORD_LENGTH - 1) << 1;
     /**
      * The Task linked. The "target" field in TermLink is not used here.
      */
     private Task targetTask;
     /**
-     * Remember the TermLinks that has been used recently with this TaskLink
+     * Remember the TermLinks that has been used recently with this TaskLink,
+     * and when, by pairs: the id of the key of the TermLink, then the time;
+     * null until the first one
      */
-    private String recordedLinks[];
+    private long records[];
     /**
-     * Remember the time when each TermLink is used with this TaskLink
+     * The keys of the TermLinks remembered, to tell apart two keys with the
+     * same id; null until the first one
      */
-    private long recordingTime[];
+    private String recordedKeys[];
+    /**
+     * The records by the ids of their keys, open-addressed with linear
+     * probing: each slot holds the index of a record plus one, or 0 when
+     * free; null until the first one
+     */
+    private byte slots[];
     /**
      * The number of TermLinks remembered
      */
@@ -70,8 +84,6 @@ public class TaskLink extends TermLink {
             type = template.getType();
             index = template.getIndices();
         }
-        recordedLinks = new String[Parameters.TERM_LINK_RECORD_LENGTH];
-        recordingTime = new long[Parameters.TERM_LINK_RECORD_LENGTH];
         counter = 0;
         setKey();   // as defined in TermLink
         key += t.getKey();
@@ -91,85 +103,108 @@ public class TaskLink extends TermLink {
      * interacted recently
      * <p>
      * called in TermLinkBag only
+     * <p>
+     * The TermLinks are looked for by the ids of their keys, see
+     * {@link Item#getKeyId()}, in the index of the records, and their keys
+     * only compared when the ids are equal, which they mostly are as the same
+     * String. When the records are full, the one used the earliest is
+     * replaced, the first one if several, as the rule has been since the
+     * records are timed; a TermLink used again after its record expired
+     * counts as used then, so the replacement is least recently used rather
+     * than first in, first out
      *
      * @param termLink The TermLink to be checked
      * @param currentTime The current time
      * @return Whether they are novel to each other
      */
-    /*public boolean novel(TermLink termLink, long currentTime) {
+    public boolean novel(TermLink termLink, long currentTime) {
         Term bTerm = termLink.getTarget();
         if (bTerm.equals(targetTask.getSentence().getContent())) {
             return false;
         }
-        String linkKey = termLink.getKey();
-        int next, i;
-        for (i = 0; i < counter; i++) {
-            next = i % Parameters.TERM_LINK_RECORD_LENGTH;
-            if (linkKey.equals(recordedLinks[next])) {
-                if (currentTime < recordingTime[next] + Parameters.TERM_LINK_RECORD_LENGTH) {
+        if (records == null) {
+            records = new long[2 * Parameters.TERM_LINK_RECORD_LENGTH];
+            recordedKeys = new String[Parameters.TERM_LINK_RECORD_LENGTH];
+            slots = new byte[SLOTS];
+        }
+        long linkId = termLink.getKeyId();
+        int s = home(linkId);
+        int i;
+        for (; slots[s] != 0; s = (s + 1) & (SLOTS - 1)) {
+            i = slots[s] - 1;
+            if ((records[2 * i] == linkId) && termLink.hasKey(recordedKeys[i])) {
+                if (currentTime < records[2 * i + 1] + Parameters.TERM_LINK_RECORD_LENGTH) {
                     return false;
                 } else {
-                    recordingTime[next] = currentTime;
+                    records[2 * i + 1] = currentTime;
                     return true;
                 }
             }
         }
-        
-        next = i % Parameters.TERM_LINK_RECORD_LENGTH;
-        recordedLinks[next] = linkKey;       // add knowledge reference to recordedLinks
-        recordingTime[next] = currentTime;
         if (counter < Parameters.TERM_LINK_RECORD_LENGTH) { // keep a constant length
-            counter++;
+            i = counter++;
+        } else {
+            i = forgetIndex();
+            unindex(i);
+            s = home(linkId);                   // the slot found free may have moved
+            while (slots[s] != 0) {
+                s = (s + 1) & (SLOTS - 1);
+            }
         }
+        records[2 * i] = linkId;       // add knowledge reference to the records
+        records[2 * i + 1] = currentTime;
+        recordedKeys[i] = termLink.getKey();
+        slots[s] = (byte) (i + 1);
         return true;
-    }*/
-    
-    public boolean novel(TermLink termLink, long currentTime) {
-        Term bTerm = termLink.getTarget();
-        if (bTerm.equals(targetTask.getSentence().getContent())) {
-            return false;
+    }
+
+    /**
+     * The first slot to look for an id in
+     *
+     * @param id The id of a key
+     * @return The slot
+     */
+    private static int home(long id) {
+        return (Long.hashCode(id) * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(SLOTS));
+    }
+
+    /**
+     * Take a record out of the index, moving back the records after it in the
+     * same run of slots that would no longer be found
+     *
+     * @param i The index of the record
+     */
+    private void unindex(int i) {
+        int mask = SLOTS - 1;
+        int s = home(records[2 * i]);
+        while (slots[s] != i + 1) {
+            s = (s + 1) & mask;
         }
-        String linkKey = termLink.getKey();
-        int next, i;
-        for (i = 0; i < counter; i++) {
-            next = i % Parameters.TERM_LINK_RECORD_LENGTH;
-            if (linkKey.equals(recordedLinks[next])) {
-                if (currentTime < recordingTime[next] + Parameters.TERM_LINK_RECORD_LENGTH) {
-                    return false;
-                } else {
-                    recordingTime[next] = currentTime;
-                    return true;
-                }
+        slots[s] = 0;
+        for (int t = (s + 1) & mask; slots[t] != 0; t = (t + 1) & mask) {
+            int h = home(records[2 * (slots[t] - 1)]);
+            if (((t - h) & mask) >= ((t - s) & mask)) {    // home not between the hole and t
+                slots[s] = slots[t];
+                slots[t] = 0;
+                s = t;
             }
         }
-        
-        if (counter < Parameters.TERM_LINK_RECORD_LENGTH) { // keep a constant length
-            next = i % Parameters.TERM_LINK_RECORD_LENGTH;
-            recordedLinks[next] = linkKey;       // add knowledge reference to recordedLinks
-            recordingTime[next] = currentTime;
-            counter++;
-        }else{        
-            int inde = forgetIndex(recordingTime);
-            recordedLinks[inde] = linkKey;
-            recordingTime[inde] = currentTime;
-        }
-        return true;
     }
-    
-    public int forgetIndex(long[] times){
-        
+
+    /**
+     * The record of the TermLink used the earliest, the first one if several
+     *
+     * @return The index of the record
+     */
+    private int forgetIndex() {
         int inde = 0;
-        long earliest = times[0];
-        
-        for (int i = 1; i < times.length; i++) {
-            
-            if(times[i] < earliest){
-                earliest = times[i];
+        long earliest = records[1];
+        for (int i = 1; i < counter; i++) {
+            if (records[2 * i + 1] < earliest) {
+                earliest = records[2 * i + 1];
                 inde = i;
             }
-            
         }
-        
         return inde;
     }
 
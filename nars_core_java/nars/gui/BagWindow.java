@@ -40,6 +40,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.Timer;
 
 import nars.entity.Item;
 import nars.main.Parameters;
@@ -83,6 +84,18 @@ public class BagWindow<BagType extends Item> extends NarsFrame implements Action
      * whether this bag window is active
      */
     private boolean showing;
+    /**
+     * Milliseconds between two refreshes of the display
+     */
+    private static final int FRAME_INTERVAL = 100;
+    /**
+     * Pulls snapshots of the bag at a fixed frame rate, on the GUI thread
+     */
+    private final Timer frameTimer;
+    /**
+     * Version of the bag the last snapshot was taken at
+     */
+    private long shownVersion = -1;
 
     public BagWindow() {
         /* The lowest level displayed */
@@ -108,9 +121,26 @@ public class BagWindow<BagType extends Item> extends NarsFrame implements Action
         setBounds(600, 60 + counter * 40, 600, 300);
         counter++;        
         adjustLabelAndCursor(showLevel);
+        frameTimer = new Timer(FRAME_INTERVAL, e -> nextFrame());
+        frameTimer.start();
         setVisible(true);
     }
 
+    /**
+     * Show a new snapshot of the bag if it has changed since the previous
+     * frame
+     */
+    private void nextFrame() {
+        if (!showing || bag == null) {
+            return;
+        }
+        long version = bag.getVersion();
+        if (version != shownVersion) {
+            shownVersion = version;
+            text.setText(bag.snapshot());
+        }
+    }
+
 	private void applyBorderLayout(JScrollPane textScrollPane) {
 		setLayout(new BorderLayout());
         add(textScrollPane, BorderLayout.CENTER );
@@ -159,7 +189,10 @@ public class BagWindow<BagType extends Item> extends NarsFrame implements Action
      * Close the window
      */
     private void close() {
-        bag.stop();
+        frameTimer.stop();
+        if (bag != null) {
+            bag.removeBagObserver(this);
+        }
         dispose();
         counter--;
     }
@@ -187,6 +220,8 @@ public class BagWindow<BagType extends Item> extends NarsFrame implements Action
     @Override
 	public void setBag( Bag<BagType> bag ) {
         this.bag = bag;
+        valueBar.setMaximum(bag.levels());
+        adjustLabelAndCursor(bag.threshold());
     }
 
     @Override
@@ -201,6 +236,11 @@ public class BagWindow<BagType extends Item> extends NarsFrame implements Action
         showing = false;
     }
 
+    @Override
+    public boolean isPolling() {
+        return true;
+    }
+
 	@SuppressWarnings("unused")
 	private void applyGridBagLayout(JScrollPane textScrollPane) {
 		GridBagLayout gridbag = new GridBagLayout();
@@ -62,7 +62,7 @@ public class InferenceRecorder implements IInferenceRecorder {
     }
 
     @Override
-	public void append(String s) {
+	public synchronized void append(String s) {
         if (isReporting) {
             window.append(s);
         }
@@ -75,22 +75,24 @@ public final class BudgetFunctions extends UtilityFunctions {
         BudgetValue budget = null;
         boolean feedbackToLinks = false;
         if (task == null) {                   // called in continued processing
-            task = memory.currentTask;
+            task = memory.getContext().currentTask;
             feedbackToLinks = true;
         }
         boolean judgmentTask = task.getSentence().isJudgment();
         float quality = LocalRules.solutionQuality(problem, solution, memory);
-        if (judgmentTask) {
-            task.incPriority(quality);
-        } else {
-            float taskPriority = task.getPriority();
-            budget = new BudgetValue(or(taskPriority, quality), task.getDurability(), truthToQuality(solution.getTruth()));
-            task.setPriority(Math.min(1 - quality, taskPriority));
+        synchronized (task) {               // shared by the concepts fired in parallel
+            if (judgmentTask) {
+                task.incPriority(quality);
+            } else {
+                float taskPriority = task.getPriority();
+                budget = new BudgetValue(or(taskPriority, quality), task.getDurability(), truthToQuality(solution.getTruth()));
+                task.setPriority(Math.min(1 - quality, taskPriority));
+            }
         }
         if (feedbackToLinks) {
-            TaskLink tLink = memory.currentTaskLink;
+            TaskLink tLink = memory.getContext().currentTaskLink;
             tLink.setPriority(Math.min(1 - quality, tLink.getPriority()));
-            TermLink bLink = memory.currentBeliefLink;
+            TermLink bLink = memory.getContext().currentBeliefLink;
             bLink.incPriority(quality);
         }
         return budget;
@@ -106,21 +108,27 @@ public final class BudgetFunctions extends UtilityFunctions {
      */
     static BudgetValue revise(TruthValue tTruth, TruthValue bTruth, TruthValue truth, boolean feedbackToLinks, Memory memory) {
         float difT = truth.getExpDifAbs(tTruth);
-        Task task = memory.currentTask;
-        task.decPriority(1 - difT);
-        task.decDurability(1 - difT);
+        Task task = memory.getContext().currentTask;
+        float taskPriority;
+        float taskDurability;
+        synchronized (task) {               // shared by the concepts fired in parallel
+            task.decPriority(1 - difT);
+            task.decDurability(1 - difT);
+            taskPriority = task.getPriority();
+            taskDurability = task.getDurability();
+        }
         if (feedbackToLinks) {
-            TaskLink tLink = memory.currentTaskLink;
+            TaskLink tLink = memory.getContext().currentTaskLink;
             tLink.decPriority(1 - difT);
             tLink.decDurability(1 - difT);
-            TermLink bLink = memory.currentBeliefLink;
+            TermLink bLink = memory.getContext().currentBeliefLink;
             float difB = truth.getExpDifAbs(bTruth);
             bLink.decPriority(1 - difB);
             bLink.decDurability(1 - difB);
         }
         float dif = truth.getConfidence() - Math.max(tTruth.getConfidence(), bTruth.getConfidence());
-        float priority = or(dif, task.getPriority());
-        float durability = aveAri(dif, task.getDurability());
+        float priority = or(dif, taskPriority);
+        float durability = aveAri(dif, taskDurability);
         float quality = truthToQuality(truth);
         return new BudgetValue(priority, durability, quality);
     }
@@ -186,10 +194,24 @@ public final class BudgetFunctions extends UtilityFunctions {
      * @param relativeThreshold The relative threshold of the bag
      */
     public static void forget(BudgetValue budget, float forgetRate, float relativeThreshold) {
+        forget(budget, forgetRate, relativeThreshold, 1);
+    }
+
+    /**
+     * Decrease Priority after an item has been left alone for a number of
+     * cycles, as by that many applications of the above, with the part of
+     * the priority above quality taken as constant in the exponent
+     *
+     * @param budget The previous budget value
+     * @param forgetRate The number of cycles for the decay factor to be fully applied
+     * @param relativeThreshold The relative threshold of the bag
+     * @param cycles The number of cycles since the last update
+     */
+    public static void forget(BudgetValue budget, float forgetRate, float relativeThreshold, long cycles) {
         double quality = budget.getQuality() * relativeThreshold;      // re-scaled quality
         double p = budget.getPriority() - quality;                     // priority above quality
         if (p > 0) {
-            quality += p * Math.pow(budget.getDurability(), 1.0 / (forgetRate * p));
+            quality += p * Math.pow(budget.getDurability(), cycles / (forgetRate * p));
         }    // priority Durability
         budget.setPriority((float) quality);
     }
@@ -284,14 +306,14 @@ public final class BudgetFunctions extends UtilityFunctions {
      * @return Budget of the conclusion task
      */
     private static BudgetValue budgetInference(float qual, int complexity, Memory memory) {
-        Item t = memory.currentTaskLink;
+        Item t = memory.getContext().currentTaskLink;
         if (t == null) {
-            t = memory.currentTask;
+            t = memory.getContext().currentTask;
         }
         float priority = t.getPriority();
         float durability = t.getDurability() / complexity;
         float quality = qual / complexity;
-        TermLink bLink = memory.currentBeliefLink;
+        TermLink bLink = memory.getContext().currentBeliefLink;
         if (bLink != null) {
             priority = or(priority, bLink.getPriority());
             durability = and(durability, bLink.getDurability());
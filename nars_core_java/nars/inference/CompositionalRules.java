@@ -93,7 +93,7 @@ public final class CompositionalRules {
     static void composeCompound(Statement taskContent, Statement beliefContent, int index, Memory memory) {
         
         // 如果当前任务的语句不是judgment 或者 任务与信念不是同一种语句类型，则返回
-        if(!memory.currentTask.getSentence().isJudgment() || taskContent.getClass() != beliefContent.getClass())
+        if(!memory.getContext().currentTask.getSentence().isJudgment() || taskContent.getClass() != beliefContent.getClass())
             return;
         // 任务时序
         int taskOrder = taskContent.getTemporalOrder();
@@ -107,7 +107,7 @@ public final class CompositionalRules {
         int timeDiff = 0;
         
         if(order != TemporalRules.ORDER_NONE)
-            timeDiff = Math.abs((int)(memory.currentTask.getSentence().getOccurrenceTime() - memory.currentBelief.getOccurrenceTime()));
+            timeDiff = Math.abs((int)(memory.getContext().currentTask.getSentence().getOccurrenceTime() - memory.getContext().currentBelief.getOccurrenceTime()));
         
         // index为公共项的位置，0就是都在谓语，1就是都在主语
         // 1 - index 就是非公共项的位置
@@ -126,8 +126,8 @@ public final class CompositionalRules {
             return;
         }
         
-        TruthValue truthT = memory.currentTask.getSentence().getTruth();
-        TruthValue truthB = memory.currentBelief.getTruth();
+        TruthValue truthT = memory.getContext().currentTask.getSentence().getTruth();
+        TruthValue truthB = memory.getContext().currentBelief.getTruth();
         TruthValue truthOr = TruthFunctions.union(truthT, truthB);
         TruthValue truthAnd = TruthFunctions.intersection(truthT, truthB);
         TruthValue truthDif = null;
@@ -151,9 +151,9 @@ public final class CompositionalRules {
                 termOr = Disjunction.make(componentT, componentB, memory);
                 
                 if(order != TemporalRules.ORDER_NONE){
-                    if(memory.currentTask.getSentence().getOccurrenceTime() > memory.currentBelief.getOccurrenceTime())
+                    if(memory.getContext().currentTask.getSentence().getOccurrenceTime() > memory.getContext().currentBelief.getOccurrenceTime())
                         termAnd = Conjunction.make(componentB, componentT, TemporalRules.ORDER_FORWARD, memory);
-                    else if(memory.currentTask.getSentence().getOccurrenceTime() < memory.currentBelief.getOccurrenceTime())
+                    else if(memory.getContext().currentTask.getSentence().getOccurrenceTime() < memory.getContext().currentBelief.getOccurrenceTime())
                         termAnd = Conjunction.make(componentT, componentB, TemporalRules.ORDER_FORWARD, memory);
                 }else{
                     termAnd = Conjunction.make(componentT, componentB, order, memory);
@@ -181,9 +181,9 @@ public final class CompositionalRules {
                 }
             } else if (taskContent instanceof Implication) {
                 if(order != TemporalRules.ORDER_NONE){
-                    if(memory.currentTask.getSentence().getOccurrenceTime() > memory.currentBelief.getOccurrenceTime())
+                    if(memory.getContext().currentTask.getSentence().getOccurrenceTime() > memory.getContext().currentBelief.getOccurrenceTime())
                         termOr = Conjunction.make(componentB, componentT, TemporalRules.ORDER_FORWARD, memory);
-                    else if(memory.currentTask.getSentence().getOccurrenceTime() < memory.currentBelief.getOccurrenceTime())
+                    else if(memory.getContext().currentTask.getSentence().getOccurrenceTime() < memory.getContext().currentBelief.getOccurrenceTime())
                         termOr = Conjunction.make(componentT, componentB, TemporalRules.ORDER_FORWARD, memory);
                 }else{
                     termOr = Conjunction.make(componentT, componentB, order, memory);
@@ -216,7 +216,7 @@ public final class CompositionalRules {
             return;
         }
         Term content = Statement.make(statement, subject, predicate, temporalOrder, memory);
-        if ((content == null) || content.equals(statement) || content.equals(memory.currentBelief.getContent())) {
+        if ((content == null) || content.equals(statement) || content.equals(memory.getContext().currentBelief.getContent())) {
             return;
         }
         BudgetValue budget = BudgetFunctions.compoundForward(truth, content, memory);
@@ -250,11 +250,11 @@ public final class CompositionalRules {
         // 将余下的复合词项中的时间间隔删除，并且提取出时间间隔
          
         // 当前任务
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         // 任务语句
         Sentence sentence = task.getSentence();
         // 当前信念
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         // 任务的词项
         Statement oldContent = (Statement) task.getContent();
         
@@ -350,11 +350,11 @@ public final class CompositionalRules {
             return;
         }
         
-        long occurrenceTime = memory.currentTask.getStamp().getOccurrenceTime();
+        long occurrenceTime = memory.getContext().currentTask.getStamp().getOccurrenceTime();
         
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         Term content = CompoundTerm.reduceComponents(compound, component, memory);
         if (content == null) {
             return;
@@ -376,7 +376,7 @@ public final class CompositionalRules {
                     return;
                 }
                 Task contentTask = new Task(contentBelief, task.getBudget());
-                memory.currentTask = contentTask;
+                memory.getContext().currentTask = contentTask;
                 Term conj = Conjunction.make(component, content, TemporalRules.ORDER_NONE, memory);
                 truth = TruthFunctions.intersection(contentBelief.getTruth(), belief.getTruth());
                 budget = BudgetFunctions.compoundForward(truth, conj, memory);
@@ -431,8 +431,8 @@ public final class CompositionalRules {
      * @param memory Reference to the memory
      */
     private static void introVarOuter(Statement taskContent, Statement beliefContent, int index, int temporalOrder, Memory memory) {
-        TruthValue truthT = memory.currentTask.getSentence().getTruth();
-        TruthValue truthB = memory.currentBelief.getTruth();
+        TruthValue truthT = memory.getContext().currentTask.getSentence().getTruth();
+        TruthValue truthB = memory.getContext().currentBelief.getTruth();
         Variable varInd = new Variable("$varInd1");
         Variable varInd2 = new Variable("$varInd2");
         Term term11, term12, term21, term22, commonTerm;
@@ -452,6 +452,8 @@ public final class CompositionalRules {
                 }
                 if (commonTerm != null) {
                     subs.put(commonTerm, varInd2);
+                    term12 = ((ImageExt) term12).clone();
+                    term22 = ((ImageExt) term22).clone();
                     ((ImageExt) term12).applySubstitute(subs);
                     ((ImageExt) term22).applySubstitute(subs);
                 }
@@ -471,6 +473,8 @@ public final class CompositionalRules {
                 }
                 if (commonTerm != null) {
                     subs.put(commonTerm, varInd2);
+                    term11 = ((ImageInt) term11).clone();
+                    term21 = ((ImageInt) term21).clone();
                     ((ImageInt) term11).applySubstitute(subs);
                     ((ImageInt) term21).applySubstitute(subs);
                 }
@@ -533,7 +537,7 @@ public final class CompositionalRules {
             return;
            
         
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence taskSentence = task.getSentence();
         if (!taskSentence.isJudgment() || (premise1.getClass() != premise2.getClass()) || oldCompound.containComponent(premise1)) {
             return;
@@ -552,10 +556,11 @@ public final class CompositionalRules {
         } else {
             return;
         }
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         HashMap<Term, Term> substitute = new HashMap<>();
         substitute.put(commonTerm1, new Variable("#varDep2"));
         CompoundTerm content = (CompoundTerm) Conjunction.make(premise1, oldCompound, TemporalRules.ORDER_NONE, memory);
+        content = content.clone();              // the one made may be shared
         content.applySubstitute(substitute);
         TruthValue truth = TruthFunctions.intersection(taskSentence.getTruth(), belief.getTruth());
         BudgetValue budget = BudgetFunctions.forward(truth, memory);
@@ -569,6 +574,7 @@ public final class CompositionalRules {
         if (content == null) {
             return;
         }
+        content = content.clone();
         content.applySubstitute(substitute);
         if (premise1.equals(taskSentence.getContent())) {
             truth = TruthFunctions.induction(belief.getTruth(), taskSentence.getTruth());
@@ -121,23 +121,29 @@ public class LocalRules {
         Term content = newBelief.getContent();
         
         if(content instanceof Implication)
-            ((Implication) content).setInterval(newInterval);                 
+            content = ((Implication) content).withInterval(newInterval);                 
 
         Stamp deriveStamp = memory.getNewStamp().clone();
         memory.resetOccurrenceTime();
         
         if (content != null) {
             Sentence newSentence = new Sentence(content, newBelief.getPunctuation(), truth, deriveStamp);
-            Concept c = memory.getConcept(content);
+            Term revised = content;
             
             if(newBelief.getPunctuation() == Symbols.JUDGMENT_MARK){
-                c.addToTable(newSentence, c.getBeliefs(), Parameters.MAXIMUM_BELIEF_LENGTH);
-                c.generateAnticipations(newSentence);
-                c.generateGoalPreconditions(newSentence);                       
+                memory.updateConcept(() -> {
+                    Concept c = memory.getConcept(revised);
+                    c.getBeliefs().add(newSentence, memory);
+                    c.generateAnticipations(newSentence);
+                    c.generateGoalPreconditions(newSentence);                       
+                });
                 
             }else if(newBelief.getPunctuation() == Symbols.GOAL_MARK){
-                Task newTask = new Task(newSentence, budget, memory.currentTask, memory.currentBelief);               
-                c.addToTable(newTask, c.getDesires(), Parameters.MAXIMUM_GOAL_LENGTH);
+                Task newTask = new Task(newSentence, budget, memory.getContext().currentTask, memory.getContext().currentBelief);               
+                memory.updateConcept(() -> {
+                    Concept c = memory.getConcept(revised);
+                    c.addToTable(newTask, c.getDesires(), Parameters.MAXIMUM_GOAL_LENGTH);
+                });
             }
         }
     }
@@ -151,18 +157,20 @@ public class LocalRules {
      */
     public static void trySolution(Sentence belief, Task task, Memory memory) {
         Sentence problem = task.getSentence();
-        Sentence oldBest = task.getBestSolution();
 
         float newQ = solutionQuality(problem, belief, memory);
-        if (oldBest != null) {
-            float oldQ = solutionQuality(problem, oldBest, memory);
-            if (oldQ >= newQ) {
-                if(problem.isGoal() && memory.getEmotion() != null)
-                    memory.getEmotion().adjustSatisfation(oldQ, newQ, memory);
-                return;
+        synchronized (task) {               // shared by the concepts fired in parallel
+            Sentence oldBest = task.getBestSolution();
+            if (oldBest != null) {
+                float oldQ = solutionQuality(problem, oldBest, memory);
+                if (oldQ >= newQ) {
+                    if(problem.isGoal() && memory.getEmotion() != null)
+                        memory.getEmotion().adjustSatisfation(oldQ, newQ, memory);
+                    return;
+                }
             }
+            task.setBestSolution(belief);   
         }
-        task.setBestSolution(belief);   
         
         //System.out.println("Task: " + task.getName());
         
@@ -217,8 +225,8 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     public static void matchReverse(Memory memory) {
-        Task task = memory.currentTask;
-        Sentence belief = memory.currentBelief;
+        Task task = memory.getContext().currentTask;
+        Sentence belief = memory.getContext().currentBelief;
         Sentence sentence = task.getSentence();
         //System.out.println("Sentence: " + sentence.getContent().getName());
         
@@ -240,7 +248,7 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     public static void matchAsymSym(Sentence asym, Sentence sym, int figure, Memory memory) {
-        if (memory.currentTask.getSentence().isJudgment()) {
+        if (memory.getContext().currentTask.getSentence().isJudgment()) {
             inferToAsym((Sentence) asym, (Sentence) sym, memory);
         } else {
             convertRelation(memory);
@@ -310,7 +318,7 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     private static void conversion(Memory memory) {
-        TruthValue truth = TruthFunctions.conversion(memory.currentBelief.getTruth());
+        TruthValue truth = TruthFunctions.conversion(memory.getContext().currentBelief.getTruth());
         BudgetValue budget = BudgetFunctions.forward(truth, memory);
         convertedJudgment(truth, budget, memory);
     }
@@ -322,8 +330,8 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     private static void convertRelation(Memory memory) {
-        TruthValue truth = memory.currentBelief.getTruth();
-        if (((Statement) memory.currentTask.getContent()).isCommutative()) {
+        TruthValue truth = memory.getContext().currentBelief.getTruth();
+        if (((Statement) memory.getContext().currentTask.getContent()).isCommutative()) {
             truth = TruthFunctions.abduction(truth, 1.0f);
         } else {
             truth = TruthFunctions.deduction(truth, 1.0f);
@@ -342,8 +350,8 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     private static void convertedJudgment(TruthValue newTruth, BudgetValue newBudget, Memory memory) {
-        Statement content = (Statement) memory.currentTask.getContent();
-        Statement beliefContent = (Statement) memory.currentBelief.getContent();
+        Statement content = (Statement) memory.getContext().currentTask.getContent();
+        Statement beliefContent = (Statement) memory.getContext().currentBelief.getContent();
         Term subjT = content.getSubject();
         Term predT = content.getPredicate();
         Term subjB = beliefContent.getSubject();
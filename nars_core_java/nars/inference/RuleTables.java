@@ -45,10 +45,16 @@ public class RuleTables {
     public static void reason(TaskLink tLink, TermLink bLink, Memory memory) {
         
         //System.out.println("New Cycle: " + memory.getTime());
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence taskSentence = task.getSentence();
-        Term taskTerm = (Term) taskSentence.getContent().clone();         // cloning for substitution
-        Term beliefTerm = (Term) bLink.getTarget().clone();       // cloning for substitution
+        Term taskTerm = taskSentence.getContent();
+        Term beliefTerm = bLink.getTarget();
+        if (taskTerm.hasVar()) {       // terms without variables are left unchanged by the rules
+            taskTerm = (Term) taskTerm.clone();         // cloning for substitution
+        }
+        if (beliefTerm.hasVar()) {
+            beliefTerm = (Term) beliefTerm.clone();       // cloning for substitution
+        }
         Concept beliefConcept = memory.termToConcept(beliefTerm);
         Sentence belief = null;
         if (beliefConcept != null) {
@@ -62,7 +68,7 @@ public class RuleTables {
             
         }*/
         
-        memory.currentBelief = belief;  // may be null
+        memory.getContext().currentBelief = belief;  // may be null
         if (belief != null) {
             LocalRules.match(task, belief, memory);
             //System.out.println("Task: " + taskSentence.toString());
@@ -147,7 +153,7 @@ public class RuleTables {
                 switch (bLink.getType()) {
                     case TermLink.COMPONENT:
                         //System.out.println("10");
-                        componentAndStatement((CompoundTerm) memory.currentTerm, bIndex, (Statement) taskTerm, tIndex, memory);
+                        componentAndStatement((CompoundTerm) memory.getContext().currentTerm, bIndex, (Statement) taskTerm, tIndex, memory);
                         break;
                     case TermLink.COMPOUND:
                         //System.out.println("11");
@@ -213,9 +219,9 @@ public class RuleTables {
      * @param memory Reference to the memory
      */
     private static void syllogisms(TaskLink tLink, TermLink bLink, Term taskTerm, Term beliefTerm, Memory memory) {
-        Sentence taskSentence = memory.currentTask.getSentence();
+        Sentence taskSentence = memory.getContext().currentTask.getSentence();
         //System.out.println(taskSentence.getContent().getName());
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         //System.out.println(belief.getContent().getName());
         int figure;
         if (taskTerm instanceof Inheritance) {
@@ -511,21 +517,21 @@ public class RuleTables {
         Statement statement = (Statement) mainSentence.getContent();
         Term component = statement.componentAt(index);
         Term content = subSentence.getContent();
-        if (((component instanceof Inheritance) || (component instanceof Negation)) && (memory.currentBelief != null)) {
+        if (((component instanceof Inheritance) || (component instanceof Negation)) && (memory.getContext().currentBelief != null)) {
             if (component.isConstant()) {
                 //System.out.println("48");
                 SyllogisticRules.detachment(mainSentence, subSentence, index, memory, false);
             } else if (Variable.unify(Symbols.VAR_INDEPENDENT, component, content, statement, content)) {
                 //System.out.println("49");
                 SyllogisticRules.detachment(mainSentence, subSentence, index, memory, false);
-            } else if ((statement instanceof Implication) && (statement.getPredicate() instanceof Statement) && (memory.currentTask.getSentence().isJudgment())) {
+            } else if ((statement instanceof Implication) && (statement.getPredicate() instanceof Statement) && (memory.getContext().currentTask.getSentence().isJudgment())) {
                 //System.out.println("50");
                 Statement s2 = (Statement) statement.getPredicate();
                 if (s2.getSubject().equals(((Statement) content).getSubject())) {
                     CompositionalRules.introVarInner((Statement) content, s2, statement, memory);
                 }
                 CompositionalRules.IntroVarSameSubjectOrPredicate(originalMainSentence,subSentence,component,content,index,memory);
-            } else if ((statement instanceof Equivalence) && (statement.getPredicate() instanceof Statement) && (memory.currentTask.getSentence().isJudgment())) {
+            } else if ((statement instanceof Equivalence) && (statement.getPredicate() instanceof Statement) && (memory.getContext().currentTask.getSentence().isJudgment())) {
                 CompositionalRules.IntroVarSameSubjectOrPredicate(originalMainSentence,subSentence,component,content,index,memory);
             }
         }
@@ -581,7 +587,7 @@ public class RuleTables {
     private static void compoundAndSelf(CompoundTerm compound, Term component, boolean compoundTask, int index, Memory memory) {
         if ((compound instanceof Conjunction) || (compound instanceof Disjunction)) {
             //System.out.println("56");
-            if (memory.currentBelief != null) {
+            if (memory.getContext().currentBelief != null) {
                 //System.out.println("99");
                 /*if(compound.containComponent(component)){
                     System.out.println("99-1");
@@ -594,7 +600,7 @@ public class RuleTables {
                 //System.out.println("57");
                 StructuralRules.structuralCompound(compound, component, compoundTask, index, memory);
             }
-//        } else if ((compound instanceof Negation) && !memory.currentTask.isStructural()) {
+//        } else if ((compound instanceof Negation) && !memory.getContext().currentTask.isStructural()) {
         } else if (compound instanceof Negation) {
             if (compoundTask) {
                 //System.out.println("58");
@@ -637,11 +643,11 @@ public class RuleTables {
      */
     private static void compoundAndStatement(CompoundTerm compound, short index, Statement statement, short side, Term beliefTerm, Memory memory) {
         Term component = compound.componentAt(index);
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         
         if (component.getClass() == statement.getClass()) {
             //System.out.println("61");
-            if ((compound instanceof Conjunction) && (memory.currentBelief != null)) {
+            if ((compound instanceof Conjunction) && (memory.getContext().currentBelief != null)) {
                 //System.out.println("62");
                 if (Variable.unify(Symbols.VAR_DEPENDENT, component, statement, compound, statement)) {
                     //System.out.println("63");
@@ -684,7 +690,7 @@ public class RuleTables {
      * @param memory Reference to the memory
      */
     private static void componentAndStatement(CompoundTerm compound, short index, Statement statement, short side, Memory memory) {
-//        if (!memory.currentTask.isStructural()) {
+//        if (!memory.getContext().currentTask.isStructural()) {
         if (statement instanceof Inheritance) {
             //System.out.println("70");
             StructuralRules.structuralDecompose1(compound, index, statement, memory);
@@ -704,10 +710,10 @@ public class RuleTables {
         } else if ((statement instanceof Implication) && (compound instanceof Negation)) {
             if (index == 0) {
                 //System.out.println("74");
-                StructuralRules.contraposition(statement, memory.currentTask.getSentence(), memory);
+                StructuralRules.contraposition(statement, memory.getContext().currentTask.getSentence(), memory);
             } else {
                 //System.out.println("75");
-                StructuralRules.contraposition(statement, memory.currentBelief, memory);
+                StructuralRules.contraposition(statement, memory.getContext().currentBelief, memory);
             }
         }
 //        }
@@ -723,7 +729,7 @@ public class RuleTables {
      */
     public static void transformTask(TaskLink tLink, Memory memory) {
 
-        CompoundTerm content = (CompoundTerm) memory.currentTask.getContent();
+        CompoundTerm content = (CompoundTerm) memory.getContext().currentTask.getContent();
         short[] indices = tLink.getIndices();
         Term inh = null;
         if ((indices.length == 2) || (content instanceof Inheritance)) {          // <(*, term, #) --> #>
@@ -86,7 +86,7 @@ public final class StructuralRules {
         if (content == null) {
             return;
         }
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         BudgetValue budget;
@@ -134,7 +134,7 @@ public final class StructuralRules {
         if (content == null) {
             return;
         }
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         BudgetValue budget;
@@ -172,11 +172,11 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     static void structuralCompose1(CompoundTerm compound, short index, Statement statement, Memory memory) {
-        if (!memory.currentTask.getSentence().isJudgment()) {
+        if (!memory.getContext().currentTask.getSentence().isJudgment()) {
             return;
         }
         Term component = compound.componentAt(index);
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         TruthValue truthDed = TruthFunctions.deduction(truth, RELIANCE);
@@ -220,11 +220,11 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     static void structuralDecompose1(CompoundTerm compound, short index, Statement statement, Memory memory) {
-        if (!memory.currentTask.getSentence().isJudgment()) {
+        if (!memory.getContext().currentTask.getSentence().isJudgment()) {
             return;
         }
         Term component = compound.componentAt(index);
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         TruthValue truthDed = TruthFunctions.deduction(truth, RELIANCE);
@@ -268,7 +268,7 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     private static void structuralStatement(Term subject, Term predicate, TruthValue truth, int temporalOrder, Memory memory) {
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Term oldContent = task.getContent();
         if (oldContent instanceof Statement) {
             Term content = Statement.make((Statement) oldContent, subject, predicate, temporalOrder, memory);
@@ -312,7 +312,7 @@ public final class StructuralRules {
         if (content == null) {
             return;
         }
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         BudgetValue budget;
@@ -423,7 +423,7 @@ public final class StructuralRules {
         if (content == null) {
             return;
         }
-        Sentence sentence = memory.currentTask.getSentence();
+        Sentence sentence = memory.getContext().currentTask.getSentence();
         TruthValue truth = sentence.getTruth();
         BudgetValue budget;
         if (sentence.isQuestion()) {
@@ -435,7 +435,7 @@ public final class StructuralRules {
         if(content instanceof Statement && (oldContent instanceof Implication || oldContent instanceof Equivalence)){
             
             Statement st = (Statement)oldContent;
-            ((Statement)content).setInterval(st.getInterval());
+            content = ((Statement)content).withInterval(st.getInterval());
             
         }
         
@@ -455,7 +455,7 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     private static void transformSubjectPI(CompoundTerm subject, Term predicate, Memory memory) {
-        TruthValue truth = memory.currentTask.getSentence().getTruth();
+        TruthValue truth = memory.getContext().currentTask.getSentence().getTruth();
         BudgetValue budget;
         Inheritance inheritance;
         Term newSubj, newPred;
@@ -509,7 +509,7 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     private static void transformPredicatePI(Term subject, CompoundTerm predicate, Memory memory) {
-        TruthValue truth = memory.currentTask.getSentence().getTruth();
+        TruthValue truth = memory.getContext().currentTask.getSentence().getTruth();
         BudgetValue budget;
         Inheritance inheritance;
         Term newSubj, newPred;
@@ -585,7 +585,7 @@ public final class StructuralRules {
         //System.out.println("compound: " + compound.getName());
         //System.out.println("component: " + component.getName());
         
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         BudgetValue budget;
@@ -616,7 +616,7 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     public static void transformNegation(Term content, Memory memory) {
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
         TruthValue truth = sentence.getTruth();
         if (sentence.isJudgment() || sentence.isGoal()) {
@@ -671,7 +671,7 @@ public final class StructuralRules {
                 truth = TruthFunctions.contraposition(truth);
             }
             budget = BudgetFunctions.compoundForward(truth, content, memory);
-            ((Statement)content).setInterval(statement.getInterval());
+            content = ((Statement)content).withInterval(statement.getInterval());
             memory.singlePremiseTask(content, Symbols.JUDGMENT_MARK, truth, budget);
         }
     }
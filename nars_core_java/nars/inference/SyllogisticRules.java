@@ -95,8 +95,8 @@ public final class SyllogisticRules {
             interval = ((Statement)term1).getInterval() + ((Statement)term2).getInterval();
         
         if(interval > 0){
-            content1.setInterval(interval);
-            content2.setInterval(interval);
+            content1 = content1.withInterval(interval);
+            content2 = content2.withInterval(interval);
         }
             
         
@@ -168,9 +168,9 @@ public final class SyllogisticRules {
             Statement statement1 = Statement.make(taskContent, term1, term2, order, memory);
             Statement statement2 = Statement.make(taskContent, term2, term1, TemporalRules.reverseOrder(order), memory);
             Statement statement3 = Statement.makeSym(taskContent, term1, term2, order, memory);
-            statement1.setInterval(interval);
-            statement2.setInterval(interval);
-            statement3.setInterval(interval);
+            statement1 = statement1.withInterval(interval);
+            statement2 = statement2.withInterval(interval);
+            statement3 = statement3.withInterval(interval);
             memory.doublePremiseTask(statement1, truth1, budget1);
             memory.doublePremiseTask(statement2, truth2, budget2);
             memory.doublePremiseTask(statement3, truth3, budget3);
@@ -195,7 +195,7 @@ public final class SyllogisticRules {
         Statement st2 = (Statement) sym.getContent();
         TruthValue truth = null;
         BudgetValue budget;
-        Sentence sentence = memory.currentTask.getSentence();
+        Sentence sentence = memory.getContext().currentTask.getSentence();
         CompoundTerm taskTerm = (CompoundTerm) sentence.getContent();
         
         int order1 = asym.getTemporalOrder();
@@ -226,7 +226,7 @@ public final class SyllogisticRules {
             interval = st.getInterval() + st2.getInterval();
 
         Term content = Statement.make(st, subj, pred, order, memory);
-        ((Statement)content).setInterval(interval);
+        content = ((Statement)content).withInterval(interval);
         memory.doublePremiseTask(content, truth, budget);
     }
 
@@ -277,7 +277,7 @@ public final class SyllogisticRules {
             interval = ((Statement)term1).getInterval() + ((Statement)term2).getInterval();
         
         Term statement = Statement.make(st, term1, term2, order, memory);
-        ((Statement)statement).setInterval(interval);
+        statement = ((Statement)statement).withInterval(interval);
         memory.doublePremiseTask(statement, truth, budget);
     }
 
@@ -349,9 +349,9 @@ public final class SyllogisticRules {
             return null;
         
         // 当前的任务语句
-        Sentence taskSentence = memory.currentTask.getSentence();
+        Sentence taskSentence = memory.getContext().currentTask.getSentence();
         // 当前的信念语句
-        Sentence beliefSentence = memory.currentBelief;
+        Sentence beliefSentence = memory.getContext().currentBelief;
         // 信念真值
         TruthValue beliefTruth = beliefSentence.getTruth();
         // 主句的真值
@@ -436,19 +436,19 @@ public final class SyllogisticRules {
         }
         
         if(occurrenceTime != Stamp.ETERNAL){
-            memory.newStamp = new Stamp(memory.currentTask.getStamp(), memory.currentBelief.getStamp(), memory.getTime());
-            memory.newStamp.setOccurrenceTime(occurrenceTime);
+            memory.getContext().newStamp = new Stamp(memory.getContext().currentTask.getStamp(), memory.getContext().currentBelief.getStamp(), memory.getTime());
+            memory.getContext().newStamp.setOccurrenceTime(occurrenceTime);
         }
         else{
-            memory.newStamp = new Stamp(memory.currentTask.getStamp(), memory.currentBelief.getStamp(), memory.getTime());
-            memory.newStamp.setOccurrenceTime(Stamp.ETERNAL);
+            memory.getContext().newStamp = new Stamp(memory.getContext().currentTask.getStamp(), memory.getContext().currentBelief.getStamp(), memory.getTime());
+            memory.getContext().newStamp.setOccurrenceTime(Stamp.ETERNAL);
         }
         
         Task newTask;
         
         if(anticipation){          
-            Sentence newSentence = new Sentence(content, memory.currentTask.getSentence().getPunctuation(), truth, memory.getNewStamp());
-            newTask = new Task(newSentence, budget, memory.currentTask, memory.currentBelief);
+            Sentence newSentence = new Sentence(content, memory.getContext().currentTask.getSentence().getPunctuation(), truth, memory.getNewStamp());
+            newTask = new Task(newSentence, budget, memory.getContext().currentTask, memory.getContext().currentBelief);
         }else{
             newTask = memory.doublePremiseTask(content, truth, budget);
         }
@@ -471,9 +471,9 @@ public final class SyllogisticRules {
      */
     static void conditionalDedInd(Implication premise1, short index, Term premise2, int side, Memory memory) {
         
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence taskSentence = task.getSentence();
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         boolean conditionalTask = Variable.hasSubstitute(Symbols.VAR_INDEPENDENT, premise2, belief.getContent());
         Term commonComponent;
         Term newComponent = null;
@@ -530,7 +530,7 @@ public final class SyllogisticRules {
         if (newCondition != null) {
             content = Statement.make(premise1, newCondition, premise1.getPredicate(), premise1.getTemporalOrder(), memory);
             if(content != null)
-                ((Statement)content).setInterval(premise1.getInterval());
+                content = ((Statement)content).withInterval(premise1.getInterval());
         } else {
             content = premise1.getPredicate();
         }
@@ -567,9 +567,9 @@ public final class SyllogisticRules {
      * @param memory Reference to the memory
      */
     static void conditionalAna(Equivalence premise1, short index, Term premise2, int side, Memory memory) {
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence taskSentence = task.getSentence();
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         //System.out.println("faksdhfasd");
         boolean conditionalTask = Variable.hasSubstitute(Symbols.VAR_INDEPENDENT, premise2, belief.getContent());
         Term commonComponent;
@@ -656,9 +656,9 @@ public final class SyllogisticRules {
         if ((term1 == null) && (term2 == null)) {
             return false;
         }
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         TruthValue value1 = sentence.getTruth();
         TruthValue value2 = belief.getTruth();
         Term content;
@@ -711,9 +711,9 @@ public final class SyllogisticRules {
         if(compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD)
             return;
         
-        Task task = memory.currentTask;
+        Task task = memory.getContext().currentTask;
         Sentence sentence = task.getSentence();
-        Sentence belief = memory.currentBelief;
+        Sentence belief = memory.getContext().currentBelief;
         TruthValue v1 = sentence.getTruth();
         TruthValue v2 = belief.getTruth();
         TruthValue truth = null;
@@ -725,8 +725,8 @@ public final class SyllogisticRules {
             budget = BudgetFunctions.compoundForward(truth, content, memory);
         }
         
-        /*long occurrenceTime = compoundTask ? memory.currentTask.getStamp().getOccurrenceTime() + ((Conjunction)compound).getInterval().get(0) 
-                : memory.currentBelief.getStamp().getOccurrenceTime() + ((Conjunction)compound).getInterval().get(0);*/   
+        /*long occurrenceTime = compoundTask ? memory.getContext().currentTask.getStamp().getOccurrenceTime() + ((Conjunction)compound).getInterval().get(0) 
+                : memory.getContext().currentBelief.getStamp().getOccurrenceTime() + ((Conjunction)compound).getInterval().get(0);*/   
         
         //memory.getNewStamp().setOccurrenceTime(occurrenceTime);
         memory.doublePremiseTask(content, truth, budget);
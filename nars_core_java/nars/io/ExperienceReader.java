@@ -79,7 +79,8 @@ public class ExperienceReader implements InputChannel {
         try {
             inExp = new BufferedReader(new FileReader(filePath));
         } catch (IOException ex) {
-            System.out.println("i/o error: " + ex.getMessage());
+            reasoner.rejectInput(ParseResult.invalid(filePath, -1, "i/o error: " + ex.getMessage()));
+            return;
         }
         reasoner.addInputChannel(this);
     }
@@ -91,7 +92,7 @@ public class ExperienceReader implements InputChannel {
         try {
             inExp.close();
         } catch (IOException ex) {
-            System.out.println("i/o error: " + ex.getMessage());
+            reasoner.rejectInput(ParseResult.invalid("", -1, "i/o error: " + ex.getMessage()));
         }
         reasoner.removeInputChannel(this);
     }
@@ -127,7 +128,9 @@ public class ExperienceReader implements InputChannel {
                     return false;
                 }
             } catch (IOException ex) {
-                System.out.println("i/o error: " + ex.getMessage());
+                reasoner.rejectInput(ParseResult.invalid("", -1, "i/o error: " + ex.getMessage()));
+                inExp = null;
+                return false;
             }
             line = line.trim();
             // read NARS language or an integer
@@ -0,0 +1,137 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.io;
+
+/**
+ * The outcome of parsing a line of input: what was made of it, or where and
+ * why it was rejected.
+ * <p>
+ * An invalid line is kept as it was given, with the position of the first
+ * error in it, so that a rejected input can be traced back to its producer.
+ *
+ * @param <T> The type of what is parsed, a Task or a Term
+ */
+public final class ParseResult<T> {
+
+    /** What was parsed, null if the input is invalid or holds nothing */
+    private final T value;
+    /** The rejected input, null if it is valid */
+    private final String input;
+    /** Position of the error in the input, -1 if it is not known */
+    private final int position;
+    /** Why the input is rejected, null if it is valid */
+    private final String reason;
+
+    private ParseResult(T value, String input, int position, String reason) {
+        this.value = value;
+        this.input = input;
+        this.position = position;
+        this.reason = reason;
+    }
+
+    /**
+     * A valid input
+     *
+     * @param <T> The type of what is parsed
+     * @param value What was parsed, null if the input holds nothing, such as
+     * an output line
+     * @return The result
+     */
+    public static <T> ParseResult<T> valid(T value) {
+        return new ParseResult<>(value, null, -1, null);
+    }
+
+    /**
+     * A rejected input
+     *
+     * @param <T> The type of what was to be parsed
+     * @param input The input
+     * @param position Position of the error in the input, -1 if it is not
+     * known
+     * @param reason Why the input is rejected
+     * @return The result
+     */
+    public static <T> ParseResult<T> invalid(CharSequence input, int position, String reason) {
+        return new ParseResult<>(null, input.toString(), position, reason);
+    }
+
+    /**
+     * Whether the input was accepted
+     *
+     * @return Whether there is no error
+     */
+    public boolean isValid() {
+        return reason == null;
+    }
+
+    /**
+     * What was parsed
+     *
+     * @return The Task or Term, null if the input is invalid or holds nothing
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * The rejected input
+     *
+     * @return The input as it was given, null if it is valid
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Where the input is invalid
+     *
+     * @return The position of the error in the input, -1 if it is valid or
+     * the position is not known
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Why the input is rejected
+     *
+     * @return The reason, null if the input is valid
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * The line reported for a rejected input
+     *
+     * @return The input, the reason and the position, or the value if valid
+     */
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return String.valueOf(value);
+        }
+        return " !!! INVALID INPUT: " + input + " --- " + reason + ((position < 0) ? "" : " at " + position);
+    }
+}
@@ -24,6 +24,7 @@
 package nars.io;
 
 import java.util.*;
+import java.util.function.LongSupplier;
 
 //import deductions.runtime.swing.TemporaryFrame;
 
@@ -57,6 +58,10 @@ import nars.storage.Memory;
 /**
  * Parse input String into Task or Term. Abstract class with static methods
  * only.
+ * <p>
+ * The input is read in a single pass by position, without copying the parts
+ * of it, except for the names of the atomic terms and the numbers of the
+ * values.
  */
 public abstract class StringParser extends Symbols {
 
@@ -65,45 +70,88 @@ public abstract class StringParser extends Symbols {
      */
     private static class InvalidInputException extends Exception {
 
+        /** Position of the error in the input */
+        private final int position;
+
         /**
-         * An invalid input line.
+         * An invalid input line, without a stack trace, as the position tells
+         * where the error is and a rejected line is not a failure of the
+         * program
          *
          * @param s type of error
+         * @param position position of the error in the input
          */
-        InvalidInputException(String s) {
-            super(s);
+        InvalidInputException(String s, int position) {
+            super(s, null, false, false);
+            this.position = position;
         }
     }
 
+    /**
+     * Parse a line of input experience, rejecting it through the reasoner if
+     * it is invalid
+     *
+     * @param line The line to be parsed
+     * @param memory Reference to the memory
+     * @param time The current time
+     * @return An experienced task, or null if there is none
+     */
+    public static Task parseExperience(CharSequence line, Memory memory, long time) {
+        return report(tryParseExperience(line, memory, time), memory);
+    }
+
     /**
      * Parse a line of input experience
      * <p>
-     * called from ExperienceIO.loadLine
+     * called from NAR.textInputLine
      *
-     * @param buffer The line to be parsed
+     * @param line The line to be parsed
      * @param memory Reference to the memory
      * @param time The current time
-     * @return An experienced task
+     * @return The experienced task, null for an output line, or the error
      */
-    public static Task parseExperience(StringBuffer buffer, Memory memory, long time) {
-        int i = buffer.indexOf(PREFIX_MARK + "");
+    public static ParseResult<Task> tryParseExperience(CharSequence line, Memory memory, long time) {
+        return tryParseExperience(line, memory, time, memory::newSerial);
+    }
+
+    /**
+     * Parse a line of input experience, with the serial number of its stamp
+     * given by the caller
+     * <p>
+     * called from NAR.loadKnowledge, which numbers the lines parsed in
+     * parallel in their order afterwards
+     *
+     * @param line The line to be parsed
+     * @param memory Reference to the memory
+     * @param time The current time
+     * @param serials Where the serial number of the stamp comes from
+     * @return The experienced task, null for an output line, or the error
+     */
+    public static ParseResult<Task> tryParseExperience(CharSequence line, Memory memory, long time, LongSupplier serials) {
+        int start = 0;
+        int end = line.length();
+        int i = indexOf(line, PREFIX_MARK, 0, end);
         if (i > 0) {
-            String prefix = buffer.substring(0, i).trim();
-            switch (prefix) {
-                case OUTPUT_LINE:
-                    return null;
-                case INPUT_LINE:
-                    buffer.delete(0, i + 1);
-                    break;
+            int from = skipSpaces(line, 0, i);
+            int to = trimEnd(line, from, i);
+            if (regionIs(line, from, to, OUTPUT_LINE)) {
+                return ParseResult.valid(null);
+            }
+            if (regionIs(line, from, to, INPUT_LINE)) {
+                start = i + 1;
+            }
+        }
+        if ((end > start) && (line.charAt(end - 1) == STAMP_CLOSER)) {
+            int j = lastIndexOf(line, STAMP_OPENER, start, end);
+            if (j > start) {
+                end = j - 1;
             }
         }
-        char c = buffer.charAt(buffer.length() - 1);
-        if (c == STAMP_CLOSER) {
-            int j = buffer.lastIndexOf(STAMP_OPENER + "");
-            buffer.delete(j - 1, buffer.length());
+        try {
+            return ParseResult.valid(readTask(line, start, end, memory, time, serials));
+        } catch (InvalidInputException e) {
+            return ParseResult.invalid(line, e.position, e.getMessage());
         }
-        //System.out.println(buffer.toString());
-        return parseTask(buffer.toString().trim(), memory, time);
     }
 
     /**
@@ -116,102 +164,118 @@ public abstract class StringParser extends Symbols {
      * @return An experienced task
      */
     public static Task parseTask(String s, Memory memory, long time) {
-        StringBuffer buffer = new StringBuffer(s);
-        Task task = null;
         try {
-            String budgetString = getBudgetString(buffer);
-            String truthString = getTruthString(buffer);
-            Tense tense = parseTense(buffer);
-            String str = buffer.toString().trim();
-
-            int last = str.length() - 1;
-            char punc = str.charAt(last);
-            Stamp stamp = new Stamp(tense, time);   
-  
-            TruthValue truth = parseTruth(truthString, punc);
-
-            if(tense != null && truth != null){
-                truth.setEternal(false);
-            }
-                        
-            Term content = parseTerm(str.substring(0, last), memory);
-            Sentence sentence = new Sentence(content, punc, truth, stamp);
-            if ((content instanceof Conjunction) && Variable.containVarDep(content.getName())) {
-                sentence.setRevisible(false);
-            }
-            //System.out.println("sentence order: " + sentence.getTemporalOrder());
-            boolean isEvent = (tense != null);
-            BudgetValue budget = parseBudget(budgetString, punc, truth, isEvent);
-            task = new Task(sentence, budget);
-            //System.out.println(task.getSentence().getContent().getName());
-            //System.out.println(task.getSentence().getTemporalOrder());
+            return readTask(s, 0, s.length(), memory, time, memory::newSerial);
         } catch (InvalidInputException e) {
-            String message = " !!! INVALID INPUT: parseTask: " + buffer + " --- " + e.getMessage();
-            System.out.println(message);
-//            showWarning(message);
+            return report(ParseResult.<Task>invalid(s, e.position, e.getMessage()), memory);
         }
-        return task;
     }
 
-    /* ---------- parse values ---------- */
     /**
-     * Return the prefix of a task string that contains a BudgetValue
+     * Count and report an invalid input, see {@link nars.main.NAR#rejectInput}
      *
-     * @param s the input in a StringBuffer
-     * @return a String containing a BudgetValue
-     * @throws nars.io.StringParser.InvalidInputException if the input cannot be
-     * parsed into a BudgetValue
+     * @param result The result of the parsing
+     * @param memory Reference to the memory
+     * @return What was parsed, null if the input is invalid
      */
-    private static String getBudgetString(StringBuffer s) throws InvalidInputException {
-        if (s.charAt(0) != BUDGET_VALUE_MARK) {
-            return null;
-        }
-        int i = s.indexOf(BUDGET_VALUE_MARK + "", 1);    // looking for the end
-        if (i < 0) {
-            throw new InvalidInputException("missing budget closer");
+    private static <T> T report(ParseResult<T> result, Memory memory) {
+        if (!result.isValid()) {
+            memory.getReasoner().rejectInput(result);
         }
-        String budgetString = s.substring(1, i).trim();
-        if (budgetString.length() == 0) {
-            throw new InvalidInputException("empty budget");
-        }
-        s.delete(0, i + 1);
-        return budgetString;
+        return result.getValue();
     }
 
     /**
-     * Return the postfix of a task string that contains a TruthValue
+     * Parse the Task between two positions of the input, which is only read
+     * <p>
+     * The budget prefix, the truth postfix and the tense are located from
+     * both ends in turn, narrowing the range left for the content.
      *
-     * @return a String containing a TruthValue
-     * @param s the input in a StringBuffer
-     * @throws nars.io.StringParser.InvalidInputException if the input cannot be
-     * parsed into a TruthValue
+     * @param s the input
+     * @param start the position of the first character
+     * @param end the position after the last character
+     * @param memory Reference to the memory
+     * @param time The current time
+     * @param serials Where the serial number of the stamp comes from
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
+     * parsed into a Task
+     * @return An experienced task
      */
-    private static String getTruthString(StringBuffer s) throws InvalidInputException {
-        int last = s.length() - 1;
-        if (s.charAt(last) != TRUTH_VALUE_MARK) {       // use default
-            return null;
+    private static Task readTask(CharSequence s, int start, int end, Memory memory, long time, LongSupplier serials) throws InvalidInputException {
+        start = skipSpaces(s, start, end);
+        end = trimEnd(s, start, end);
+        if (start == end) {
+            throw new InvalidInputException("missing content", start);
         }
-        int first = s.indexOf(TRUTH_VALUE_MARK + "");    // looking for the beginning
-        if (first == last) { // no matching closer
-            throw new InvalidInputException("missing truth mark");
+        String budgetString = null;
+        int budgetAt = start;
+        if (s.charAt(start) == BUDGET_VALUE_MARK) {
+            int i = indexOf(s, BUDGET_VALUE_MARK, start + 1, end);    // looking for the end
+            if (i < 0) {
+                throw new InvalidInputException("missing budget closer", start);
+            }
+            budgetString = trimmed(s, start + 1, i);
+            if (budgetString.length() == 0) {
+                throw new InvalidInputException("empty budget", start);
+            }
+            start = i + 1;
         }
-        String truthString = s.substring(first + 1, last).trim();
-        if (truthString.length() == 0) {                // empty usage
-            throw new InvalidInputException("empty truth");
+        String truthString = null;
+        int truthAt = end;
+        if ((end > start) && (s.charAt(end - 1) == TRUTH_VALUE_MARK)) {
+            int i = indexOf(s, TRUTH_VALUE_MARK, start, end);        // looking for the beginning
+            if (i == end - 1) { // no matching closer
+                throw new InvalidInputException("missing truth mark", i);
+            }
+            truthString = trimmed(s, i + 1, end - 1);
+            if (truthString.length() == 0) {                // empty usage
+                throw new InvalidInputException("empty truth", i);
+            }
+            truthAt = i;
+            end = i;
+        }
+        Tense tense = null;
+        int i = indexOf(s, TENSE_MARK.charAt(0), start, end);
+        if (i > start) {
+            tense = Tense.tense(trimmed(s, i, end));
+            end = i;
+        }
+        start = skipSpaces(s, start, end);
+        end = trimEnd(s, start, end);
+        if (start == end) {
+            throw new InvalidInputException("missing content", start);
+        }
+        char punc = s.charAt(end - 1);
+        Stamp stamp = new Stamp(serials.getAsLong(), tense, time);   
+  
+        TruthValue truth = parseTruth(truthString, punc, truthAt);
+
+        if(tense != null && truth != null){
+            truth.setEternal(false);
         }
-        s.delete(first, last + 1);                 // remaining input to be processed outside
-        s.trimToSize();
-        return truthString;
+                        
+        Term content = readTerm(s, start, end - 1, memory);
+        Sentence sentence = new Sentence(content, punc, truth, stamp);
+        if ((content instanceof Conjunction) && Variable.containVarDep(content.getName())) {
+            sentence.setRevisible(false);
+        }
+        boolean isEvent = (tense != null);
+        BudgetValue budget = parseBudget(budgetString, punc, truth, isEvent, budgetAt, end - 1);
+        return new Task(sentence, budget);
     }
 
+    /* ---------- parse values ---------- */
     /**
      * parse the input String into a TruthValue (or DesireValue)
      *
      * @param s input String
      * @param type Task type
+     * @param position the position of the truth in the input
      * @return the input TruthValue
+     * @throws nars.io.StringParser.InvalidInputException If the String cannot
+     * be parsed into a TruthValue
      */
-    private static TruthValue parseTruth(String s, char type) {
+    private static TruthValue parseTruth(String s, char type, int position) throws InvalidInputException {
         if (type == QUESTION_MARK) {
             return null;
         }
@@ -220,10 +284,10 @@ public abstract class StringParser extends Symbols {
         if (s != null) {
             int i = s.indexOf(VALUE_SEPARATOR);
             if (i < 0) {
-                frequency = Float.parseFloat(s);
+                frequency = parseValue(s, position);
             } else {
-                frequency = Float.parseFloat(s.substring(0, i));
-                confidence = Float.parseFloat(s.substring(i + 1));
+                frequency = parseValue(s.substring(0, i), position);
+                confidence = parseValue(s.substring(i + 1), position);
             }
         }
         return new TruthValue(frequency, confidence);
@@ -235,11 +299,13 @@ public abstract class StringParser extends Symbols {
      * @param truth the TruthValue of the task
      * @param s input String
      * @param punctuation Task punctuation
+     * @param position the position of the budget in the input
+     * @param punctuationAt the position of the punctuation in the input
      * @return the input BudgetValue
      * @throws nars.io.StringParser.InvalidInputException If the String cannot
      * be parsed into a BudgetValue
      */
-    private static BudgetValue parseBudget(String s, char punctuation, TruthValue truth, boolean isEvent) throws InvalidInputException {
+    private static BudgetValue parseBudget(String s, char punctuation, TruthValue truth, boolean isEvent, int position, int punctuationAt) throws InvalidInputException {
         float priority, durability;
         switch (punctuation) {
             case JUDGMENT_MARK:
@@ -265,85 +331,90 @@ public abstract class StringParser extends Symbols {
                 durability = Parameters.DEFAULT_QUEST_DURABILITY;
                 break;
             default:
-                throw new InvalidInputException("unknown punctuation: '" + punctuation + "'");
+                throw new InvalidInputException("unknown punctuation: '" + punctuation + "'", punctuationAt);
         }
         if (s != null) { // overrite default
             int i = s.indexOf(VALUE_SEPARATOR);
             if (i < 0) {        // default durability
-                priority = Float.parseFloat(s);
+                priority = parseValue(s, position);
             } else {
-                priority = Float.parseFloat(s.substring(0, i));
-                durability = Float.parseFloat(s.substring(i + 1));
+                priority = parseValue(s.substring(0, i), position);
+                durability = parseValue(s.substring(i + 1), position);
             }
         }
         float quality = (truth == null) ? 1 : BudgetFunctions.truthToQuality(truth);
         return new BudgetValue(priority, durability, quality);
     }
 
+    /**
+     * parse a number of a TruthValue or BudgetValue, checked beforehand so
+     * that Float.parseFloat does not throw
+     *
+     * @param s0 the number, digits with at most one point
+     * @param position the position of the value in the input
+     * @return the number
+     * @throws nars.io.StringParser.InvalidInputException If the String is not
+     * such a number
+     */
+    private static float parseValue(String s0, int position) throws InvalidInputException {
+        String s = s0.trim();
+        boolean digit = false;
+        boolean point = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c >= '0') && (c <= '9')) {
+                digit = true;
+            } else if ((c == '.') && !point) {
+                point = true;
+            } else {
+                digit = false;
+                break;
+            }
+        }
+        if (!digit) {
+            throw new InvalidInputException("invalid number: " + s, position);
+        }
+        return Float.parseFloat(s);
+    }
+
     /* ---------- parse String into term ---------- */
     /**
-     * Top-level method that parse a Term in general, which may recursively call
-     * itself.
+     * The built-in relations, all of length 3, as located in a statement
+     */
+    private static final String[] RELATIONS = {INHERITANCE_RELATION, SIMILARITY_RELATION,
+        INSTANCE_RELATION, PROPERTY_RELATION, INSTANCE_PROPERTY_RELATION,
+        IMPLICATION_RELATION, IMPLICATION_BEFORE, IMPLICATION_WHEN, IMPLICATION_AFTER,
+        EQUIVALENCE_AFTER, EQUIVALENCE_WHEN, EQUIVALENCE_BEFORE, EQUIVALENCE_RELATION};
+
+    /**
+     * Top-level method that parse a Term in general.
      * <p>
      * There are 5 valid cases: 1. (Op, A1, ..., An) is a CompoundTerm if Op is
      * a built-in operator 2. {A1, ..., An} is an SetExt; 3. [A1, ..., An] is an
      * SetInt; 4. <T1 Re T2> is a Statement (including higher-order Statement);
      * 5. otherwise it is a simple term.
      *
-     * @param s0 the String to be parsed
+     * @param s the String to be parsed
      * @param memory Reference to the memory
-     * @return the Term generated from the String
+     * @return the Term generated from the String, or null if it is invalid
      */
-    public static Term parseTerm(String s0, Memory memory) {
-        //System.out.println("test: " + s0);
-        String s = s0.trim();
+    public static Term parseTerm(String s, Memory memory) {
+        return report(tryParseTerm(s, memory), memory);
+    }
+
+    /**
+     * Parse a Term, which is only read
+     *
+     * @param s the input
+     * @param memory Reference to the memory
+     * @return the Term generated from the input, or the error
+     */
+    public static ParseResult<Term> tryParseTerm(CharSequence s, Memory memory) {
         try {
-            if (s.length() == 0) {
-                throw new InvalidInputException("missing content");
-            }
-            Term t = memory.nameToListedTerm(s);    // existing constant or operator
-            if (t != null) {
-                return t;
-            }                           // existing Term
-            int index = s.length() - 1;
-            char first = s.charAt(0);
-            char last = s.charAt(index);
-            
-            
-            switch (first) {
-                case COMPOUND_TERM_OPENER:
-                    if (last == COMPOUND_TERM_CLOSER) {
-                        return parseCompoundTerm(s.substring(1, index), memory);
-                    } else {
-                        throw new InvalidInputException("missing CompoundTerm closer");
-                    }
-                case SET_EXT_OPENER:
-                    if (last == SET_EXT_CLOSER) {
-                        return SetExt.make(parseArguments(s.substring(1, index) + ARGUMENT_SEPARATOR, memory), memory);
-                    } else {
-                        throw new InvalidInputException("missing ExtensionSet closer");
-                    }
-                case SET_INT_OPENER:
-                    if (last == SET_INT_CLOSER) {
-                        return SetInt.make(parseArguments(s.substring(1, index) + ARGUMENT_SEPARATOR, memory), memory);
-                    } else {
-                        throw new InvalidInputException("missing IntensionSet closer");
-                    }
-                case STATEMENT_OPENER:
-                    if (last == STATEMENT_CLOSER) {
-                        return parseStatement(s.substring(1, index), memory);
-                    } else {
-                        throw new InvalidInputException("missing Statement closer");
-                    }
-                default:
-                    return parseAtomicTerm(s);
-            }
+            return ParseResult.valid(readTerm(s, 0, s.length(), memory));
         } catch (InvalidInputException e) {
-            String message = " !!! INVALID INPUT: parseTerm: " + s + " --- " + e.getMessage();
-            System.out.println(message);
-//            showWarning(message);
+            return ParseResult.invalid(s, e.position, e.getMessage());
         }
-        return null;
     }
 
 //    private static void showWarning(String message) {
@@ -351,227 +422,303 @@ public abstract class StringParser extends Symbols {
 //				40000, TemporaryFrame.WARNING );
 //    }
     /**
-     * Parse a Term that has no internal structure.
-     * <p>
-     * The Term can be a constant or a variable.
+     * Read a whole Term between two positions
+     *
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
+     * parsed into a Term, or has more after it
+     */
+    private static Term readTerm(CharSequence s, int start, int end, Memory memory) throws InvalidInputException {
+        int[] at = {start};
+        Term t = readTerm(s, at, end, memory);
+        int i = skipSpaces(s, at[0], end);
+        if (i < end) {
+            throw new InvalidInputException("invalid term", i);
+        }
+        return t;
+    }
+
+    /**
+     * Read the Term at a position, the components before their compound, so
+     * that it is made by the make methods and interned as usual
      *
-     * @param s0 the String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
+     * @param s the input
+     * @param at the position, advanced past the Term read
+     * @param end the position after the last character
+     * @param memory Reference to the memory
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
      * parsed into a Term
-     * @return the Term generated from the String
+     * @return the Term read
      */
-    private static Term parseAtomicTerm(String s0) throws InvalidInputException {
-        String s = s0.trim();
-        if (s.length() == 0) {
-            throw new InvalidInputException("missing term");
+    private static Term readTerm(CharSequence s, int[] at, int end, Memory memory) throws InvalidInputException {
+        int i = skipSpaces(s, at[0], end);
+        if (i == end) {
+            throw new InvalidInputException("missing term", i);
+        }
+        at[0] = i + 1;
+        Term t;
+        switch (s.charAt(i)) {
+            case COMPOUND_TERM_OPENER:
+                return readCompoundTerm(s, at, end, memory);
+            case SET_EXT_OPENER:
+                t = SetExt.make(readArguments(s, at, end, SET_EXT_CLOSER, "missing ExtensionSet closer", memory), memory);
+                break;
+            case SET_INT_OPENER:
+                t = SetInt.make(readArguments(s, at, end, SET_INT_CLOSER, "missing IntensionSet closer", memory), memory);
+                break;
+            case STATEMENT_OPENER:
+                return readStatement(s, at, end, memory);
+            default:
+                at[0] = i;
+                return readAtomicTerm(s, at, end, memory);
+        }
+        if (t == null) {
+            throw new InvalidInputException("invalid compound term", i);
+        }
+        return t;
+    }
+
+    /**
+     * Read a Term that has no internal structure.
+     * <p>
+     * The Term can be a constant, an operator or a variable. It ends at a space,
+     * a separator, a delimiter, or a relation.
+     *
+     * @throws nars.io.StringParser.InvalidInputException there is no name at
+     * the position
+     * @return the Term read
+     */
+    private static Term readAtomicTerm(CharSequence s, int[] at, int end, Memory memory) throws InvalidInputException {
+        int start = at[0];
+        int i = start;
+        while ((i < end) && !endsName(s, i, end)) {
+            i++;
         }
-        if (s.contains(" ")) // invalid characters in a name
-        {
-            throw new InvalidInputException("invalid term");
+        if (i == start) {
+            throw new InvalidInputException("missing term", start);
         }
-        
-        if (Variable.containVar(s)) {
-            return new Variable(s);
+        at[0] = i;
+        String name = s.subSequence(start, i).toString();
+        Term t = memory.nameToListedTerm(name);    // existing constant or operator
+        if (t != null) {
+            return t;
+        }
+        if (Variable.containVar(name)) {
+            return new Variable(name);
         } else {
-            return new Term(s);
+            return new Term(name);
         }
     }
 
     /**
-     * Parse a String to create a Statement.
+     * Read a Statement, after its opener
      *
-     * @return the Statement generated from the String
-     * @param s0 The input String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into a Term
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
+     * parsed into a Statement
+     * @return the Statement read
      */
-    private static Statement parseStatement(String s0, Memory memory) throws InvalidInputException {
-        String s = s0.trim();
-        //System.out.println("parseStatement: " + s0);
-        int i = topRelation(s);
-        //System.out.println(i);
-        if (i < 0) {
-            throw new InvalidInputException("invalid statement");
-        }
-        //System.out.println("456: " + s);
-        String relation = s.substring(i, i + 3);
-        //System.out.println(relation);
-        Term subject = parseTerm(s.substring(0, i), memory);
-        Term predicate = parseTerm(s.substring(i + 3), memory);
-        //System.out.println("reation: " + relation);
+    private static Statement readStatement(CharSequence s, int[] at, int end, Memory memory) throws InvalidInputException {
+        int start = at[0] - 1;
+        Term subject = readTerm(s, at, end, memory);
+        int i = skipSpaces(s, at[0], end);
+        String relation = relationAt(s, i, end);
+        if (relation == null) {
+            throw new InvalidInputException("invalid statement", i);
+        }
+        at[0] = i + relation.length();
+        Term predicate = readTerm(s, at, end, memory);
+        i = skipSpaces(s, at[0], end);
+        if ((i == end) || (s.charAt(i) != STATEMENT_CLOSER)) {
+            throw new InvalidInputException("missing Statement closer", i);
+        }
+        at[0] = i + 1;
         Statement t = Statement.make(relation, subject, predicate, memory);
-        //System.out.println(t.getName());
         if (t == null) {
-            throw new InvalidInputException("invalid statement");
+            throw new InvalidInputException("invalid statement", start);
         }
-        /*System.out.println("t: " + t.getName());
-        System.out.println("order: " + t.getTemporalOrder());*/
         return t;
     }
 
     /**
-     * Parse a String to create a CompoundTerm.
+     * Read a CompoundTerm or an Operation, after its opener
      *
-     * @return the Term generated from the String
-     * @param s0 The String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
      * parsed into a Term
+     * @return the Term read
      */
-    private static Term parseCompoundTerm(String s0, Memory memory) throws InvalidInputException {
-        String s = s0.trim();
-        int firstSeparator = s.indexOf(ARGUMENT_SEPARATOR);
-        String op = s.substring(0, firstSeparator).trim();
+    private static Term readCompoundTerm(CharSequence s, int[] at, int end, Memory memory) throws InvalidInputException {
+        int start = at[0] - 1;
+        int firstSeparator = indexOf(s, ARGUMENT_SEPARATOR, at[0], end);
+        if (firstSeparator < 0) {
+            throw new InvalidInputException("null argument", start);
+        }
+        String op = trimmed(s, at[0], firstSeparator);
+        at[0] = firstSeparator + 1;
         if (!CompoundTerm.isOperator(op)) {
             
             String operatorString = Operator.addPrefix(op);
             Operator operator = memory.getOperator(operatorString);
             
             if(operator != null){
-                ArrayList<Term> args = parseArguments(s.substring(firstSeparator + 1) + ARGUMENT_SEPARATOR, memory);
-                Operation o = Operation.make(operator, args);
-                //System.out.println(o.getClass().toString());
-                return o;
+                ArrayList<Term> args = readArguments(s, at, end, COMPOUND_TERM_CLOSER, "missing CompoundTerm closer", memory);
+                return Operation.make(operator, args);
             }
-            System.out.println("Invalid Compound or Operation");
-            return null;
+            throw new InvalidInputException("invalid compound or operation", start);
         }
-        ArrayList<Term> arg = parseArguments(s.substring(firstSeparator + 1) + ARGUMENT_SEPARATOR, memory);
+        ArrayList<Term> arg = readArguments(s, at, end, COMPOUND_TERM_CLOSER, "missing CompoundTerm closer", memory);
         Term t = CompoundTerm.make(op, arg, memory);
         if (t == null) {
-            throw new InvalidInputException("invalid compound term");
+            throw new InvalidInputException("invalid compound term", start);
         }
         return t;
     }
 
     /**
-     * Parse a String into the argument get of a CompoundTerm.
+     * Read the arguments of a CompoundTerm, up to and including its closer
      *
+     * @param closer the closer of the CompoundTerm
+     * @param missing the error if the closer is not found
      * @return the arguments in an ArrayList
-     * @param s0 The String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into an argument get
+     * @throws nars.io.StringParser.InvalidInputException the input cannot be
+     * parsed into an argument list
      */
-    private static ArrayList<Term> parseArguments(String s0, Memory memory) throws InvalidInputException {
-        String s = s0.trim();
+    private static ArrayList<Term> readArguments(CharSequence s, int[] at, int end, char closer, String missing, Memory memory) throws InvalidInputException {
         ArrayList<Term> list = new ArrayList<>();
-        int start = 0;
-        int end = 0;
-        Term t;
-        while (end < s.length() - 1) {
-            end = nextSeparator(s, start);
-            t = parseTerm(s.substring(start, end), memory);     // recursive call
-            list.add(t);
-            start = end + 1;
+        int i = skipSpaces(s, at[0], end);
+        if ((i < end) && (s.charAt(i) == closer)) {
+            throw new InvalidInputException("null argument", i);
         }
-        if (list.isEmpty()) {
-            throw new InvalidInputException("null argument");
+        while (true) {
+            list.add(readTerm(s, at, end, memory));
+            i = skipSpaces(s, at[0], end);
+            if (i == end) {
+                throw new InvalidInputException(missing, i);
+            }
+            at[0] = i + 1;
+            char c = s.charAt(i);
+            if (c == closer) {
+                return list;
+            }
+            if (c != ARGUMENT_SEPARATOR) {
+                throw new InvalidInputException(missing, i);
+            }
         }
-        return list;
     }
 
-    /* ---------- locate top-level substring ---------- */
+    /* ---------- scan the input ---------- */
     /**
-     * Locate the first top-level separator in a CompoundTerm
+     * Check whether a name ends at a position
      *
-     * @return the index of the next seperator in a String
-     * @param s The String to be parsed
-     * @param first The starting index
+     * @return if the character is a space, a separator or a delimiter, or
+     * begins a relation
      */
-    private static int nextSeparator(String s, int first) {
-        int levelCounter = 0;
-        int i = first;
-        while (i < s.length() - 1) {
-            if (isOpener(s, i)) {
-                levelCounter++;
-            } else if (isCloser(s, i)) {
-                levelCounter--;
-            } else if (s.charAt(i) == ARGUMENT_SEPARATOR) {
-                if (levelCounter == 0) {
-                    break;
-                }
-            }
-            i++;
+    private static boolean endsName(CharSequence s, int i, int end) {
+        char c = s.charAt(i);
+        switch (c) {
+            case ARGUMENT_SEPARATOR:
+            case COMPOUND_TERM_OPENER:
+            case COMPOUND_TERM_CLOSER:
+            case SET_EXT_OPENER:
+            case SET_EXT_CLOSER:
+            case SET_INT_OPENER:
+            case SET_INT_CLOSER:
+            case STATEMENT_OPENER:
+            case STATEMENT_CLOSER:
+                return true;
+            default:
+                return (c <= ' ') || (relationAt(s, i, end) != null);
         }
-        return i;
     }
 
     /**
-     * locate the top-level relation in a statement
+     * Locate a relation at a position
      *
-     * @return the index of the top-level relation
-     * @param s The String to be parsed
+     * @return the relation beginning at the position, or null if there is none
      */
-    private static int topRelation(String s) {      // need efficiency improvement
-        int levelCounter = 0;
-        int i = 0;
-        while (i < s.length() - 3) {    // don't need to check the last 3 characters
-            if ((levelCounter == 0) && (Statement.isRelation(s.substring(i, i + 3)))) {
-                return i;
-            }
-            if (isOpener(s, i)) {
-                levelCounter++;
-            } else if (isCloser(s, i)) {
-                levelCounter--;
+    private static String relationAt(CharSequence s, int i, int end) {
+        if (i + 3 > end) {
+            return null;
+        }
+        for (String relation : RELATIONS) {
+            if ((s.charAt(i) == relation.charAt(0)) && (s.charAt(i + 1) == relation.charAt(1))
+                    && (s.charAt(i + 2) == relation.charAt(2))) {
+                return relation;
             }
+        }
+        return null;
+    }
+
+    /**
+     * Skip the spaces from a position on, as String.trim does
+     *
+     * @return the position of the next other character, or end
+     */
+    private static int skipSpaces(CharSequence s, int i, int end) {
+        while ((i < end) && (s.charAt(i) <= ' ')) {
             i++;
         }
-        return -1;
+        return i;
     }
 
-    /* ---------- recognize symbols ---------- */
     /**
-     * Check CompoundTerm opener symbol
+     * Skip the spaces before a position, as String.trim does
      *
-     * @return if the given String is an opener symbol
-     * @param s The String to be checked
-     * @param i The starting index
+     * @return the position after the last other character, or start
      */
-    private static boolean isOpener(String s, int i) {
-        char c = s.charAt(i);
-        boolean b = (c == COMPOUND_TERM_OPENER)
-                || (c == SET_EXT_OPENER)
-                || (c == SET_INT_OPENER)
-                || (c == STATEMENT_OPENER);
-        if (!b) {
-            return false;
+    private static int trimEnd(CharSequence s, int start, int end) {
+        while ((end > start) && (s.charAt(end - 1) <= ' ')) {
+            end--;
         }
-        if (i + 3 <= s.length() && Statement.isRelation(s.substring(i, i + 3))) {
+        return end;
+    }
+
+    /**
+     * The characters between two positions, without the spaces around
+     */
+    private static String trimmed(CharSequence s, int start, int end) {
+        start = skipSpaces(s, start, end);
+        return s.subSequence(start, trimEnd(s, start, end)).toString();
+    }
+
+    /**
+     * Check whether the characters between two positions are a given word
+     */
+    private static boolean regionIs(CharSequence s, int start, int end, String word) {
+        if (end - start != word.length()) {
             return false;
         }
+        for (int i = 0; i < word.length(); i++) {
+            if (s.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
         return true;
     }
 
     /**
-     * Check CompoundTerm closer symbol
+     * Locate the first occurrence of a character between two positions
      *
-     * @return if the given String is a closer symbol
-     * @param s The String to be checked
-     * @param i The starting index
+     * @return the position of the character, or -1 if it is not there
      */
-    private static boolean isCloser(String s, int i) {
-        char c = s.charAt(i);
-        boolean b = (c == COMPOUND_TERM_CLOSER)
-                || (c == SET_EXT_CLOSER)
-                || (c == SET_INT_CLOSER)
-                || (c == STATEMENT_CLOSER);
-        if (!b) {
-            return false;
-        }
-        if (i >= 2 && Statement.isRelation(s.substring(i - 2, i + 1))) {
-            return false;
+    private static int indexOf(CharSequence s, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
         }
-        return true;
+        return -1;
     }
-    
-    public static Tense parseTense(StringBuffer s){
-        final int i = s.indexOf(Symbols.TENSE_MARK);
-        String t = "";
-        if(i > 0){
-            t = s.substring(i).trim();
-            s.delete(i, s.length());
-        }
-        //System.out.println("t: " + t);
-        return Tense.tense(t);
-                
+
+    /**
+     * Locate the last occurrence of a character between two positions
+     *
+     * @return the position of the character, or -1 if it is not there
+     */
+    private static int lastIndexOf(CharSequence s, char c, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
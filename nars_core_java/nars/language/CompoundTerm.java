@@ -61,8 +61,22 @@ public abstract class CompoundTerm extends Term {
      * @return The operator in a String
      */
     public abstract String operator();
-    
+
+    /**
+     * Whether a variable, or one of each type, occurs in the compound, at any
+     * depth, and whether a statement with an interval does
+     */
     private boolean hasVariable, hasVarQueries, hasVarIndeps, hasVarDeps, hasIntervals;
+    /**
+     * Structural hash of the compound, from those of its components, kept up
+     * to date by the methods changing them
+     */
+    private int hash;
+    /**
+     * The atomic terms in the compound, at any depth, as a one-word Bloom
+     * filter
+     */
+    private long leaves;
     
     /**
      * Abstract clone method
@@ -86,6 +100,9 @@ public abstract class CompoundTerm extends Term {
         this.components = components;
         this.isConstant = isConstant;
         this.complexity = complexity;
+        calcVariables();
+        calcHash();
+        calcLeaves();
     }
 
     /**
@@ -95,25 +112,18 @@ public abstract class CompoundTerm extends Term {
     }
 
     /**
-     * Constructor called from subclasses constructors to initialize the fields
+     * Constructor called from subclasses constructors to initialize the fields;
+     * the name is only made when first asked for
      *
      * @param components Component list
      */
     protected CompoundTerm(ArrayList<Term> components) {
         this.components = components;
         calcComplexity();
-        name = makeName();
-        isConstant = !Variable.containVar(name);
-        
-        hasVariable = hasVarQueries = hasVarIndeps = hasVarDeps = hasIntervals = false;
-        
-        for(Term t : components){
-            hasVariable |= t.hasVar();
-            hasVarDeps |= t.hasVarDep();
-            hasVarIndeps |= t.hasVarIndep();
-            hasVarQueries |= t.hasVarQuery();
-            hasIntervals |= t.hasInterval();
-        }
+        calcHash();
+        calcLeaves();
+        calcVariables();
+        isConstant = !hasVariable;
     }
     
     /*protected CompoundTerm(ArrayList<Term> components, int temporalOrder){
@@ -129,22 +139,17 @@ public abstract class CompoundTerm extends Term {
     /**
      * Constructor called from subclasses constructors to initialize the fields
      *
-     * @param name Name of the compound
+     * @param name Name of the compound, or null to make it when first asked for
      * @param components Component list
      */
     protected CompoundTerm(String name, ArrayList<Term> components) {
         super(name);
-        isConstant = !Variable.containVar(name);
         this.components = components;
         calcComplexity();
-        
-        for(Term t : components){
-            hasVariable |= t.hasVar();
-            hasVarDeps |= t.hasVarDep();
-            hasVarIndeps |= t.hasVarIndep();
-            hasVarQueries |= t.hasVarQuery();
-            hasIntervals |= t.hasInterval();
-        }
+        calcHash();
+        calcLeaves();
+        calcVariables();
+        isConstant = !hasVariable;
     }
 
     /**
@@ -156,6 +161,20 @@ public abstract class CompoundTerm extends Term {
         name = s;
     }
 
+    /**
+     * Get the name, making it from the components the first time, as most
+     * compounds derived by the rules are dropped before it is needed
+     *
+     * @return The name of the term as a String
+     */
+    @Override
+    public String getName() {
+        if (name == null) {
+            name = makeName();
+        }
+        return name;
+    }
+
     /**
      * The complexity of the term is the sum of those of the components plus 1
      */
@@ -166,15 +185,52 @@ public abstract class CompoundTerm extends Term {
         }
     }
 
+    /**
+     * The hash is that of the component list, computed from the cached hashes
+     * of the components
+     */
+    private void calcHash() {
+        hash = 43 * 7 + Objects.hashCode(components);
+    }
+
+    /**
+     * Collect the Bloom bits of the atomic terms in the components
+     */
+    private void calcLeaves() {
+        leaves = 0;
+        for (Term t : components) {
+            leaves |= (t instanceof CompoundTerm) ? ((CompoundTerm) t).leaves : leafBit(t);
+        }
+    }
+
+    /**
+     * The Bloom bit of an atomic term, from its hash
+     */
+    private static long leafBit(Term t) {
+        return 1L << ((t.hashCode() * 0x9E3779B9) >>> 26);
+    }
+
+    /**
+     * Compounds are equal when they have the same structure; the hash, size
+     * and operator are compared before the components
+     */
     @Override
     public boolean equals(Object that) {
-        return (that instanceof Term) && (compareTo((Term) that) == 0);
+        if (that == this) {                     // interned, see Memory.intern
+            return true;
+        }
+        if (!(that instanceof CompoundTerm)) {
+            return false;
+        }
+        final CompoundTerm t = (CompoundTerm) that;
+        if ((hash != t.hash) || (size() != t.size()) || !operator().equals(t.operator())) {
+            return false;
+        }
+        return compareTo(t) == 0;
     }
 
     @Override
     public int hashCode() {
-        int hash = 7;
-        hash = 43 * hash + Objects.hashCode(this.components);
         return hash;
     }
 
@@ -352,9 +408,6 @@ public abstract class CompoundTerm extends Term {
         name.append(op);
         for (Term t : arg) {
             name.append(Symbols.ARGUMENT_SEPARATOR);
-            if (t instanceof CompoundTerm) {
-                ((CompoundTerm) t).setName(((CompoundTerm) t).makeName());
-            }
             name.append(t.getName());
         }
         name.append(Symbols.COMPOUND_TERM_CLOSER);
@@ -524,6 +577,9 @@ public abstract class CompoundTerm extends Term {
      */
     @Override
     public boolean containTerm(Term target) {
+        if ((target instanceof CompoundTerm) || ((leaves & leafBit(target)) == 0)) {
+            return false;                       // only atomic terms are matched, see Term.containTerm
+        }
         for (Term term : components) {
             if (term.containTerm(target)) {
                 return true;
@@ -651,7 +707,53 @@ public abstract class CompoundTerm extends Term {
      * @return Whether the name contains a variable
      */
     public boolean containVar() {
-        return Variable.containVar(name);
+        return hasVariable;
+    }
+
+    @Override
+    public boolean hasVar() {
+        return hasVariable;
+    }
+
+    @Override
+    public boolean hasVarQuery() {
+        return hasVarQueries;
+    }
+
+    @Override
+    public boolean hasVarIndep() {
+        return hasVarIndeps;
+    }
+
+    @Override
+    public boolean hasVarDep() {
+        return hasVarDeps;
+    }
+
+    /**
+     * Whether a statement with an interval occurs among the components, at
+     * any depth; a statement adds its own interval, which may be set after
+     * it is made
+     *
+     * @return Whether an interval occurs in the compound
+     */
+    @Override
+    public boolean hasInterval() {
+        return hasIntervals;
+    }
+
+    /**
+     * Collect the variable and interval flags of the components, at any depth
+     */
+    private void calcVariables() {
+        hasVarQueries = hasVarIndeps = hasVarDeps = hasIntervals = false;
+        for (Term t : components) {
+            hasVarQueries |= t.hasVarQuery();
+            hasVarIndeps |= t.hasVarIndep();
+            hasVarDeps |= t.hasVarDep();
+            hasIntervals |= t.hasInterval();
+        }
+        hasVariable = hasVarQueries || hasVarIndeps || hasVarDeps;
     }
 
     /**
@@ -661,9 +763,9 @@ public abstract class CompoundTerm extends Term {
     public void renameVariables() {
         if (containVar()) {
             renameVariables(new HashMap<Variable, Variable>());
-        }
+            name = null;
+        }                                       // a term without variables may be shared, see Memory.intern
         setConstant(true);
-        setName(makeName());
     }
 
     /**
@@ -691,9 +793,11 @@ public abstract class CompoundTerm extends Term {
                     map.put((Variable) term, var);
                 } else if (term instanceof CompoundTerm) {
                     ((CompoundTerm) term).renameVariables(map);
-                    ((CompoundTerm) term).setName(((CompoundTerm) term).makeName());
+                    ((CompoundTerm) term).name = null;
                 }
             }
+            calcHash();
+            calcLeaves();
         }
     }
 
@@ -733,8 +837,10 @@ public abstract class CompoundTerm extends Term {
             TreeSet<Term> s = new TreeSet<>(components);
             components = new ArrayList<>(s);
         }
-        name = makeName();
-        //System.out.println("name: " + name);
+        calcVariables();
+        calcHash();
+        calcLeaves();
+        name = null;                            // made again when needed
     }
 
     /* ----- link CompoundTerm and its components ----- */
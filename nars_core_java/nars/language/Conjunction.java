@@ -134,23 +134,7 @@ public class Conjunction extends CompoundTerm {
         
        // System.out.println(list.toString());
         
-        String name = "";
-        
-        switch (temporalOrder) {
-            case TemporalRules.ORDER_FORWARD:
-                //System.out.println(list);
-                name = makeCompoundName(Symbols.CONJUNCTION_SEQUENCE, list);
-                break;
-            case TemporalRules.ORDER_CONCURRENT:
-                name = makeCompoundName(Symbols.CONJUNCTION_PARALLEL, list);
-                break;
-            default:
-                name = makeCompoundName(Symbols.CONJUNCTION_OPERATOR, list);
-                break;
-        }
-        
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new Conjunction(name, list, temporalOrder);
+        return memory.intern(new Conjunction(null, list, temporalOrder));
     }
 
     // overload this method by term type?
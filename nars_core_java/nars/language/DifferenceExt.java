@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class DifferenceExt extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private DifferenceExt(ArrayList<Term> arg) {
+    DifferenceExt(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -79,9 +79,7 @@ public class DifferenceExt extends CompoundTerm {
             set.removeAll(((CompoundTerm) argList.get(1)).cloneComponents());           // set difference
             return SetExt.make(set, memory);
         }
-        String name = makeCompoundName(Symbols.DIFFERENCE_EXT_OPERATOR, argList);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new DifferenceExt(argList);
+        return memory.intern(new DifferenceExt(argList));
     }
 
     /**
@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class DifferenceInt extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private DifferenceInt(ArrayList<Term> arg) {
+    DifferenceInt(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -79,9 +79,7 @@ public class DifferenceInt extends CompoundTerm {
             set.removeAll(((CompoundTerm) argList.get(1)).cloneComponents());           // set difference
             return SetInt.make(set, memory);
         }
-        String name = makeCompoundName(Symbols.DIFFERENCE_INT_OPERATOR, argList);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new DifferenceInt(argList);
+        return memory.intern(new DifferenceInt(argList));
     }
 
     /**
@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class Disjunction extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private Disjunction(ArrayList<Term> arg) {
+    Disjunction(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -112,9 +112,7 @@ public class Disjunction extends CompoundTerm {
             return set.first();
         }                         // special case: single component
         ArrayList<Term> argument = new ArrayList<>(set);
-        String name = makeCompoundName(Symbols.DISJUNCTION_OPERATOR, argument);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new Disjunction(argument);
+        return memory.intern(new Disjunction(argument));
     }
 
     /**
@@ -98,26 +98,12 @@ public class Equivalence extends Statement {
             predicate = interm;
         }
         
-        String name = "";
-        
-        switch(temporalOrder){
-            
-            case TemporalRules.ORDER_BACKWARD:
-                temporalOrder = TemporalRules.ORDER_FORWARD; 
-            case TemporalRules.ORDER_FORWARD:
-                name = makeStatementName(subject, Symbols.EQUIVALENCE_AFTER, predicate);
-                break;
-            case TemporalRules.ORDER_CONCURRENT:
-                name = makeStatementName(subject, Symbols.EQUIVALENCE_WHEN, predicate);
-                break;
-            default:
-                name = makeStatementName(subject, Symbols.EQUIVALENCE_RELATION, predicate);
-                break;
-            
+        if (temporalOrder == TemporalRules.ORDER_BACKWARD) {
+            temporalOrder = TemporalRules.ORDER_FORWARD;
         }
         
         ArrayList<Term> argument = argumentsToList(subject, predicate);
-        return new Equivalence(name, argument, temporalOrder, interval);
+        return new Equivalence(null, argument, temporalOrder, interval);   // named from operator() when needed
     }
 
     /**
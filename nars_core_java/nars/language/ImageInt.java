@@ -41,12 +41,12 @@ public class ImageInt extends CompoundTerm {
     private short relationIndex;
 
     /**
-     * constructor with partial values, called by make
+     * constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      * @param index The index of relation in the component list
      */
-    private ImageInt(String n, ArrayList<Term> arg, short index) {
+    ImageInt(String n, ArrayList<Term> arg, short index) {
         super(n, arg);
         relationIndex = index;
     }
@@ -146,9 +146,7 @@ public class ImageInt extends CompoundTerm {
      * @return the Term generated from the arguments
      */
     public static Term make(ArrayList<Term> argument, short index, Memory memory) {
-        String name = makeImageName(Symbols.IMAGE_INT_OPERATOR, argument, index);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new ImageInt(name, argument, index);
+        return memory.intern(new ImageInt(null, argument, index));
     }
 
     /**
@@ -159,6 +157,22 @@ public class ImageInt extends CompoundTerm {
         return relationIndex;
     }
 
+    /**
+     * Images are equal when they also have the place-holder at the same
+     * place, as their names do
+     * @param that The Term to be compared with the current Term
+     * @return Whether the two Terms are equal
+     */
+    @Override
+    public boolean equals(Object that) {
+        return super.equals(that) && (relationIndex == ((ImageInt) that).relationIndex);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
     /**
      * Get the relation term in the Image
      * @return The term representing a relation
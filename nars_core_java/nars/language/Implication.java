@@ -93,25 +93,6 @@ public class Implication extends Statement {
             return null;
         }
         
-        String name = "";
-        //System.out.println("order: " + temporalOrder);
-        switch (temporalOrder) {
-            case TemporalRules.ORDER_FORWARD:
-                name = makeStatementName(subject, Symbols.IMPLICATION_AFTER, predicate);
-                break;
-            case TemporalRules.ORDER_BACKWARD:
-                //System.out.println("backward");
-                name = makeStatementName(subject, Symbols.IMPLICATION_BEFORE, predicate);
-                break;
-            case TemporalRules.ORDER_CONCURRENT:
-                //System.out.println("current");
-                name = makeStatementName(subject, Symbols.IMPLICATION_WHEN, predicate);
-                break;
-            default:
-                name = makeStatementName(subject, Symbols.IMPLICATION_RELATION, predicate);
-                break;
-        }
-        
         if (predicate instanceof Implication) {
             Term oldCondition = ((Implication) predicate).getSubject();
             if ((oldCondition instanceof Conjunction) && ((Conjunction) oldCondition).containComponent(subject)) {
@@ -121,7 +102,7 @@ public class Implication extends Statement {
             return make(newCondition, ((Implication) predicate).getPredicate(), temporalOrder, ((Implication) predicate).getInterval(), memory);
         } else {
             ArrayList<Term> argument = argumentsToList(subject, predicate);
-            return new Implication(name, argument, temporalOrder, interval);
+            return new Implication(null, argument, temporalOrder, interval);   // named from operator() when needed
         }
     }
     
@@ -72,13 +72,8 @@ public class Inheritance extends Statement {
         if (invalidStatement(subject, predicate)) {
             return null;
         }
-        String name = makeStatementName(subject, Symbols.INHERITANCE_RELATION, predicate);
-        Term t = memory.nameToListedTerm(name);
-        if (t != null) {
-            return (Inheritance) t;
-        }
         ArrayList<Term> argument = argumentsToList(subject, predicate);
-        return new Inheritance(argument);
+        return memory.intern(new Inheritance(argument));
     }
 
     /**
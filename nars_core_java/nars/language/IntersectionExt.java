@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class IntersectionExt extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private IntersectionExt(ArrayList<Term> arg) {
+    IntersectionExt(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -121,9 +121,7 @@ public class IntersectionExt extends CompoundTerm {
             return set.first();
         }                         // special case: single component
         ArrayList<Term> argument = new ArrayList<Term>(set);
-        String name = makeCompoundName(Symbols.INTERSECTION_EXT_OPERATOR, argument);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new IntersectionExt(argument);
+        return memory.intern(new IntersectionExt(argument));
     }
 
     /**
@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class IntersectionInt extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private IntersectionInt(ArrayList<Term> arg) {
+    IntersectionInt(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -121,9 +121,7 @@ public class IntersectionInt extends CompoundTerm {
             return set.first();
         }                         // special case: single component
         ArrayList<Term> argument = new ArrayList<Term>(set);
-        String name = makeCompoundName(Symbols.INTERSECTION_INT_OPERATOR, argument);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new IntersectionInt(argument);
+        return memory.intern(new IntersectionInt(argument));
     }
 
     /**
@@ -34,12 +34,12 @@ import nars.storage.Memory;
 public class Negation extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      *
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private Negation(ArrayList<Term> arg) {
+    Negation(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -92,9 +92,7 @@ public class Negation extends CompoundTerm {
         if (argument.size() != 1) {
             return null;
         }
-        String name = makeCompoundName(Symbols.NEGATION_OPERATOR, argument);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new Negation(argument);
+        return memory.intern(new Negation(argument));
     }
 
     /**
@@ -68,9 +68,7 @@ public class Product extends CompoundTerm {
      * @param memory Reference to the memeory
      */
     public static Term make(ArrayList<Term> argument, Memory memory) {
-        String name = makeCompoundName(Symbols.PRODUCT_OPERATOR, argument);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new Product(argument);
+        return memory.intern(new Product(argument));
     }
         
     /**
@@ -95,9 +95,7 @@ public class SetExt extends CompoundTerm {
             return null;
         }
         ArrayList<Term> argument = new ArrayList<Term>(set);
-        String name = makeSetName(Symbols.SET_EXT_OPENER, argument, Symbols.SET_EXT_CLOSER);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new SetExt(argument);
+        return memory.intern(new SetExt(argument));
     }
 
     /**
@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class SetInt extends CompoundTerm {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private SetInt(ArrayList<Term> arg) {
+    SetInt(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -95,9 +95,7 @@ public class SetInt extends CompoundTerm {
             return null;
         }
         ArrayList<Term> argument = new ArrayList<Term>(set);
-        String name = makeSetName(Symbols.SET_INT_OPENER, argument, Symbols.SET_INT_CLOSER);
-        Term t = memory.nameToListedTerm(name);
-        return (t != null) ? t : new SetInt(argument);
+        return memory.intern(new SetInt(argument));
     }
 
     /**
@@ -34,11 +34,11 @@ import nars.storage.Memory;
 public class Similarity extends Statement {
 
     /**
-     * Constructor with partial values, called by make
+     * Constructor with partial values, called by make and TermCode
      * @param n The name of the term
      * @param arg The component list of the term
      */
-    private Similarity(ArrayList<Term> arg) {
+    Similarity(ArrayList<Term> arg) {
         super(arg);
     }
 
@@ -76,13 +76,8 @@ public class Similarity extends Statement {
         if (subject.compareTo(predicate) > 0) {
             return make(predicate, subject, memory);
         }
-        String name = makeStatementName(subject, Symbols.SIMILARITY_RELATION, predicate);
-        Term t = memory.nameToListedTerm(name);
-        if (t != null) {
-            return (Similarity) t;
-        }
         ArrayList<Term> argument = argumentsToList(subject, predicate);
-        return new Similarity(argument);
+        return memory.intern(new Similarity(argument));
     }
 
     /**
@@ -75,6 +75,32 @@ public abstract class Statement extends CompoundTerm {
     public void setInterval(long interval){
         this.interval = interval;
     }
+
+    /**
+     * Whether this statement, or one among its components, has an interval
+     *
+     * @return Whether an interval occurs in the statement
+     */
+    @Override
+    public boolean hasInterval() {
+        return (interval != 0) || super.hasInterval();
+    }
+
+    /**
+     * Get the statement with a given interval, without changing this one, as
+     * the statements made by make may be shared
+     *
+     * @param interval The interval
+     * @return This statement if it has the interval already, or a copy
+     */
+    public Statement withInterval(long interval) {
+        if (interval == this.interval) {
+            return this;
+        }
+        Statement copy = (Statement) clone();
+        copy.interval = interval;
+        return copy;
+    }
     
     /**
      * Make a Statement from String, called by StringParser
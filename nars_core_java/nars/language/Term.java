@@ -29,6 +29,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import nars.inference.TemporalRules;
 import nars.io.Symbols;
+import nars.storage.IdTable;
 import nars.storage.Memory;
 
 /**
@@ -45,6 +46,14 @@ public class Term implements Cloneable, Comparable<Term> {
      * given alphabet (ASCII or Unicode)
      */
     protected String name;
+    /**
+     * The id of the name, as used to look up the Concept in an id-keyed Bag
+     */
+    private long id;
+    /**
+     * The name the id was computed from
+     */
+    private String idName;
     
     public static Term SELF = new SetExt(new ArrayList<Term>(Arrays.asList(new Term("SELF"))));
 
@@ -81,6 +90,21 @@ public class Term implements Cloneable, Comparable<Term> {
         this.name = name;
     }
 
+    /**
+     * Get the id of the name, computed once and then cached as long as the
+     * name is not replaced
+     *
+     * @return The id of the Term, equal to the key id of its Concept
+     */
+    public long getId() {
+        String n = getName();
+        if (idName != n) {
+            id = IdTable.idOf(n);
+            idName = n;
+        }
+        return id;
+    }
+
     /**
      * Make a new Term with the same name.
      *
@@ -188,7 +212,7 @@ public class Term implements Cloneable, Comparable<Term> {
      */
     @Override
     public final String toString() {
-        return name;
+        return getName();
     }
     
     public boolean hasVarQuery(){
@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import nars.inference.TemporalRules;
+import nars.storage.AtomTable;
+import nars.storage.Memory;
+
+/**
+ * A Term in compact form: the nodes of its tree in prefix order, one int each,
+ * with the atoms numbered in the {@link AtomTable} of the Memory.
+ * <p>
+ * The header of a node has the tag of its class in the high 8 bits. An atom
+ * has its number in the low 24 bits. A compound has its number of components
+ * in the low 12 bits, and in the next 12 the relation index of an image or the
+ * temporal order of a conjunction, implication or equivalence. The code thus
+ * keeps all that is in the name of the term, and two terms have equal codes
+ * exactly when they have the same name. The interval of a statement, which is
+ * not in the name, is kept beside the nodes and left out of equals.
+ * <p>
+ * A code is used in place of the Term naming a Concept, see
+ * {@link nars.main.NARConfig#isConceptTermCodes()}, and decoded into a Term
+ * each time the rules need one.
+ */
+public final class TermCode {
+
+    /* tags of the nodes */
+    private static final int TERM = 0;
+    private static final int VARIABLE = 1;
+    private static final int OPERATOR = 2;
+    private static final int PRODUCT = 3;
+    private static final int SET_EXT = 4;
+    private static final int SET_INT = 5;
+    private static final int INTERSECTION_EXT = 6;
+    private static final int INTERSECTION_INT = 7;
+    private static final int DIFFERENCE_EXT = 8;
+    private static final int DIFFERENCE_INT = 9;
+    private static final int IMAGE_EXT = 10;
+    private static final int IMAGE_INT = 11;
+    private static final int NEGATION = 12;
+    private static final int DISJUNCTION = 13;
+    private static final int CONJUNCTION = 14;
+    private static final int INHERITANCE = 15;
+    private static final int OPERATION = 16;
+    private static final int SIMILARITY = 17;
+    private static final int IMPLICATION = 18;
+    private static final int EQUIVALENCE = 19;
+
+    /** The largest number of components or relation index in a code */
+    private static final int FIELD = (1 << 12) - 1;
+
+    /** The nodes of the term, in prefix order */
+    private final int[] code;
+    /** The intervals of the statement nodes, by position, or null if all are 0 */
+    private final long[] intervals;
+    /** The hash of the nodes */
+    private final int hash;
+    /** The syntactic complexity of the term */
+    private final short complexity;
+
+    private TermCode(int[] code, long[] intervals, short complexity) {
+        this.code = code;
+        this.intervals = intervals;
+        this.hash = Arrays.hashCode(code);
+        this.complexity = complexity;
+    }
+
+    /**
+     * Encode a term
+     *
+     * @param term The term
+     * @param atoms The atom table of the Memory
+     * @return The code of the term
+     * @throws IllegalArgumentException If the term has too many components,
+     * or is of a class without a tag
+     */
+    public static TermCode encode(Term term, AtomTable atoms) {
+        int[] code = new int[nodes(term)];
+        long[] intervals = new long[code.length];
+        encode(term, atoms, code, intervals, 0);
+        for (long interval : intervals) {
+            if (interval != 0) {
+                return new TermCode(code, intervals, (short) term.getComplexity());
+            }
+        }
+        return new TermCode(code, null, (short) term.getComplexity());
+    }
+
+    /**
+     * The number of nodes in the tree of a term
+     */
+    private static int nodes(Term term) {
+        int n = 1;
+        if (term instanceof CompoundTerm) {
+            for (Term t : ((CompoundTerm) term).getComponents()) {
+                n += nodes(t);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Write the nodes of a term from a position on
+     *
+     * @return The position after the nodes
+     */
+    private static int encode(Term term, AtomTable atoms, int[] code, long[] intervals, int at) {
+        if (!(term instanceof CompoundTerm)) {
+            int tag = (term instanceof Variable) ? VARIABLE : (term instanceof Operator) ? OPERATOR : TERM;
+            code[at] = (tag << 24) | atoms.numberOf(term.getName());
+            return at + 1;
+        }
+        CompoundTerm compound = (CompoundTerm) term;
+        int field = 0;
+        if (compound instanceof ImageExt) {
+            field = ((ImageExt) compound).getRelationIndex();
+        } else if (compound instanceof ImageInt) {
+            field = ((ImageInt) compound).getRelationIndex();
+        } else if ((compound instanceof Conjunction) || (compound instanceof Implication) || (compound instanceof Equivalence)) {
+            field = compound.getTemporalOrder() - TemporalRules.ORDER_INVALID;
+        }
+        if (compound.size() > FIELD) {
+            throw new IllegalArgumentException("too many components to encode: " + compound.size());
+        }
+        if (compound instanceof Statement) {
+            intervals[at] = ((Statement) compound).getInterval();
+        }
+        code[at++] = (tagOf(compound) << 24) | (field << 12) | compound.size();
+        for (Term t : compound.getComponents()) {
+            at = encode(t, atoms, code, intervals, at);
+        }
+        return at;
+    }
+
+    /**
+     * The tag of a compound, from its class
+     */
+    private static int tagOf(CompoundTerm compound) {
+        if (compound instanceof Product) {
+            return PRODUCT;
+        } else if (compound instanceof SetExt) {
+            return SET_EXT;
+        } else if (compound instanceof SetInt) {
+            return SET_INT;
+        } else if (compound instanceof IntersectionExt) {
+            return INTERSECTION_EXT;
+        } else if (compound instanceof IntersectionInt) {
+            return INTERSECTION_INT;
+        } else if (compound instanceof DifferenceExt) {
+            return DIFFERENCE_EXT;
+        } else if (compound instanceof DifferenceInt) {
+            return DIFFERENCE_INT;
+        } else if (compound instanceof ImageExt) {
+            return IMAGE_EXT;
+        } else if (compound instanceof ImageInt) {
+            return IMAGE_INT;
+        } else if (compound instanceof Negation) {
+            return NEGATION;
+        } else if (compound instanceof Disjunction) {
+            return DISJUNCTION;
+        } else if (compound instanceof Conjunction) {
+            return CONJUNCTION;
+        } else if (compound instanceof Operation) {     // before Inheritance, its superclass
+            return OPERATION;
+        } else if (compound instanceof Inheritance) {
+            return INHERITANCE;
+        } else if (compound instanceof Similarity) {
+            return SIMILARITY;
+        } else if (compound instanceof Implication) {
+            return IMPLICATION;
+        } else if (compound instanceof Equivalence) {
+            return EQUIVALENCE;
+        }
+        throw new IllegalArgumentException("no code for " + compound.getClass().getSimpleName());
+    }
+
+    /**
+     * Decode the term, which is interned in the Memory unless it contains a
+     * variable, or is an implication, an equivalence or a statement with an
+     * interval, see {@link Memory#intern}
+     * <p>
+     * The term is built with the constructors rather than the make methods, as
+     * those look up the Concept being decoded. It is constant, like all the
+     * terms naming Concepts.
+     *
+     * @param memory The Memory whose atom table the code refers to
+     * @return The term
+     */
+    public Term decode(Memory memory) {
+        int[] at = {0};
+        Term term = decode(memory, at);
+        if (term instanceof CompoundTerm) {
+            ((CompoundTerm) term).setConstant(true);   // as done by renameVariables
+        }
+        return term;
+    }
+
+    /**
+     * Decode the node at a position, and its components
+     *
+     * @param at The position, advanced past the nodes read
+     */
+    private Term decode(Memory memory, int[] at) {
+        long interval = (intervals == null) ? 0 : intervals[at[0]];
+        int header = code[at[0]++];
+        int tag = header >>> 24;
+        if (tag <= OPERATOR) {
+            String name = memory.getAtoms().nameOf(header & 0xFFFFFF);
+            if (tag == VARIABLE) {
+                return new Variable(name);
+            }
+            if (tag == OPERATOR) {
+                Operator operator = memory.getOperator(name);
+                if (operator != null) {
+                    return operator;
+                }
+            }
+            return new Term(name);
+        }
+        int size = header & FIELD;
+        int field = (header >>> 12) & FIELD;
+        ArrayList<Term> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            components.add(decode(memory, at));
+        }
+        CompoundTerm compound;
+        switch (tag) {
+            case PRODUCT:
+                compound = new Product(components);
+                break;
+            case SET_EXT:
+                compound = new SetExt(components);
+                break;
+            case SET_INT:
+                compound = new SetInt(components);
+                break;
+            case INTERSECTION_EXT:
+                compound = new IntersectionExt(components);
+                break;
+            case INTERSECTION_INT:
+                compound = new IntersectionInt(components);
+                break;
+            case DIFFERENCE_EXT:
+                compound = new DifferenceExt(components);
+                break;
+            case DIFFERENCE_INT:
+                compound = new DifferenceInt(components);
+                break;
+            case IMAGE_EXT:
+                compound = new ImageExt(null, components, (short) field);
+                break;
+            case IMAGE_INT:
+                compound = new ImageInt(null, components, (short) field);
+                break;
+            case NEGATION:
+                compound = new Negation(components);
+                break;
+            case DISJUNCTION:
+                compound = new Disjunction(components);
+                break;
+            case CONJUNCTION:
+                compound = new Conjunction(null, components, field + TemporalRules.ORDER_INVALID);
+                break;
+            case INHERITANCE:
+                compound = new Inheritance(components);
+                break;
+            case OPERATION:
+                compound = new Operation(components);
+                break;
+            case SIMILARITY:
+                compound = new Similarity(components);
+                break;
+            case IMPLICATION:
+                compound = new Implication(null, components, field + TemporalRules.ORDER_INVALID, 0);
+                break;
+            case EQUIVALENCE:
+                compound = new Equivalence(null, components, field + TemporalRules.ORDER_INVALID, 0);
+                break;
+            default:
+                throw new IllegalStateException("bad tag in term code: " + tag);
+        }
+        if (compound instanceof Statement) {
+            ((Statement) compound).setInterval(interval);
+        }
+        return memory.intern(compound);
+    }
+
+    /**
+     * The syntactic complexity of the term, known without decoding it
+     *
+     * @return The complexity
+     */
+    public int getComplexity() {
+        return complexity;
+    }
+
+    /**
+     * The number of nodes of the term
+     *
+     * @return The length of the code
+     */
+    public int length() {
+        return code.length;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (that == this) {
+            return true;
+        }
+        return (that instanceof TermCode) && (hash == ((TermCode) that).hash)
+                && Arrays.equals(code, ((TermCode) that).code);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
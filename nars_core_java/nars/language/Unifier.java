@@ -0,0 +1,328 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.language;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import nars.io.Symbols;
+
+/**
+ * The search for a substitution unifying two terms, used by
+ * {@link Variable#unify} and {@link Variable#hasSubstitute}; each thread reuses
+ * its own.
+ * <p>
+ * The substitution of each side is a frame of two parallel arrays, variables
+ * and their values. A binding is added at the end of a frame, or replaces the
+ * value of the same variable, the old value going on a trail; so a failed
+ * attempt is undone by cutting the frames back to a mark and unwinding the
+ * trail. Nothing is allocated while searching, except the arrays growing the
+ * first times they are needed.
+ * <p>
+ * The components of a commutative compound are matched against those of the
+ * other in every order, beginning with the given one, until one order succeeds;
+ * a pair that cannot match, by its class, size or constant content, is passed
+ * over without a search. As the orders grow with the factorial of the size,
+ * larger compounds are matched in the given order only.
+ */
+final class Unifier {
+
+    /** The initial length of the arrays */
+    private static final int INITIAL = 8;
+    /** Largest commutative compound matched in every order */
+    private static final int MAX_COMMUTATIVE = 8;
+    /** Types of variables, by their index in {@link #common} */
+    private static final char[] TYPES = {Symbols.VAR_INDEPENDENT, Symbols.VAR_DEPENDENT, Symbols.VAR_QUERY};
+
+    /** The type of variable that can be substituted */
+    private char type;
+    /** Variables of the two frames */
+    private final Term[][] keys = {new Term[INITIAL], new Term[INITIAL]};
+    /** Values of the two frames */
+    private final Term[][] values = {new Term[INITIAL], new Term[INITIAL]};
+    /** Number of bindings in the two frames */
+    private final int[] sizes = new int[2];
+    /** Replaced bindings, as the slot times 2 plus the side */
+    private int[] trailSlots = new int[INITIAL];
+    /** Replaced values */
+    private Term[] trailValues = new Term[INITIAL];
+    /** Number of replaced bindings */
+    private int trailSize;
+    /** Common variables made so far, by type, reused as they only live until the renaming */
+    private final Variable[][] common = {new Variable[0], new Variable[0], new Variable[0]};
+    /** Number of common variables used in the current unification */
+    private int commonUsed;
+
+    /**
+     * Search for a substitution unifying two terms, without changing them
+     *
+     * @param type The type of variable that can be substituted
+     * @param term1 The first term
+     * @param term2 The second term
+     * @return Whether the terms can be unified
+     */
+    boolean unify(char type, Term term1, Term term2) {
+        this.type = type;
+        Arrays.fill(keys[0], 0, sizes[0], null);
+        Arrays.fill(keys[1], 0, sizes[1], null);
+        Arrays.fill(values[0], 0, sizes[0], null);
+        Arrays.fill(values[1], 0, sizes[1], null);
+        sizes[0] = sizes[1] = 0;
+        Arrays.fill(trailValues, 0, trailSize, null);
+        trailSize = 0;
+        commonUsed = 0;
+        return find(term1, term2);
+    }
+
+    /**
+     * Whether the substitution found for a side is empty
+     *
+     * @param side 0 for the first term, 1 for the second
+     * @return Whether no variable of that side is substituted
+     */
+    boolean isEmpty(int side) {
+        return sizes[side] == 0;
+    }
+
+    /**
+     * The substitution found for a side, as applied by
+     * {@link CompoundTerm#applySubstitute}
+     *
+     * @param side 0 for the first term, 1 for the second
+     * @return A new map from variables to their values
+     */
+    HashMap<Term, Term> substitute(int side) {
+        HashMap<Term, Term> map = new HashMap<>();
+        for (int i = 0; i < sizes[side]; i++) {
+            map.put(keys[side][i], values[side][i]);
+        }
+        return map;
+    }
+
+    /**
+     * Recursively find a substitution unifying two terms, extending the frames
+     *
+     * @param term1 The first term
+     * @param term2 The second term
+     * @return Whether the terms can be unified
+     */
+    private boolean find(Term term1, Term term2) {
+        if (isVariable(term1)) {
+            Term t = get(0, term1);
+            if (t != null) {    // already mapped
+                return find(t, term2);
+            }
+            if (isVariable(term2)) {
+                Variable commonVar = commonVariable();
+                put(0, term1, commonVar);   // unify
+                put(1, term2, commonVar);   // unify
+            } else {
+                put(0, term1, term2);       // elimination
+                if (isCommonVariable(term1)) {
+                    put(1, term1, term2);
+                }
+            }
+            return true;
+        } else if (isVariable(term2)) {
+            Term t = get(1, term2);
+            if (t != null) {    // already mapped
+                return find(term1, t);
+            }
+            put(1, term2, term1);           // elimination
+            if (isCommonVariable(term2)) {
+                put(0, term2, term1);
+            }
+            return true;
+        } else if ((term1 instanceof CompoundTerm) && term1.getClass().equals(term2.getClass())) {
+            CompoundTerm cTerm1 = (CompoundTerm) term1;
+            CompoundTerm cTerm2 = (CompoundTerm) term2;
+            if (cTerm1.size() != cTerm2.size()) {
+                return false;
+            }
+            if ((cTerm1 instanceof ImageExt) && (((ImageExt) cTerm1).getRelationIndex() != ((ImageExt) cTerm2).getRelationIndex())
+                    || (cTerm1 instanceof ImageInt) && (((ImageInt) cTerm1).getRelationIndex() != ((ImageInt) cTerm2).getRelationIndex())) {
+                return false;
+            }
+            if (cTerm1.isCommutative() && (cTerm1.size() > 1) && (cTerm1.size() <= MAX_COMMUTATIVE)) {
+                return findCommutative(cTerm1, cTerm2, 0, 0L);
+            }
+            for (int i = 0; i < cTerm1.size(); i++) {   // in order, as in the name
+                if (!find(cTerm1.componentAt(i), cTerm2.componentAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return term1.equals(term2); // for atomic constant terms
+    }
+
+    /**
+     * Match the components of a commutative compound, from a position of the
+     * other on, to the ones not used yet, backtracking until all are matched
+     *
+     * @param cTerm1 The first compound
+     * @param cTerm2 The second compound
+     * @param position The first component of cTerm2 not matched yet
+     * @param used The components of cTerm1 already matched, as bits
+     * @return Whether all the remaining components are matched
+     */
+    private boolean findCommutative(CompoundTerm cTerm1, CompoundTerm cTerm2, int position, long used) {
+        if (position == cTerm2.size()) {
+            return true;
+        }
+        Term t2 = cTerm2.componentAt(position);
+        int mark0 = sizes[0];
+        int mark1 = sizes[1];
+        int markTrail = trailSize;
+        for (int i = 0; i < cTerm1.size(); i++) {
+            long bit = 1L << i;
+            if (((used & bit) == 0) && mayMatch(cTerm1.componentAt(i), t2)) {
+                if (find(cTerm1.componentAt(i), t2) && findCommutative(cTerm1, cTerm2, position + 1, used | bit)) {
+                    return true;
+                }
+                undo(mark0, mark1, markTrail);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check cheaply whether two terms may be unified: a variable may match
+     * anything, compounds must have the same class and size, and terms
+     * without a variable of the type must be equal
+     *
+     * @param t1 The first term
+     * @param t2 The second term
+     * @return False if the terms cannot be unified
+     */
+    private boolean mayMatch(Term t1, Term t2) {
+        if (isVariable(t1) || isVariable(t2)) {
+            return true;
+        }
+        if ((t1 instanceof CompoundTerm) && (t2 instanceof CompoundTerm)) {
+            if (!t1.getClass().equals(t2.getClass()) || (((CompoundTerm) t1).size() != ((CompoundTerm) t2).size())) {
+                return false;
+            }
+            return t1.hasVar(type) || t2.hasVar(type) || t1.equals(t2);
+        }
+        return t1.equals(t2);
+    }
+
+    private boolean isVariable(Term t) {
+        return (t instanceof Variable) && (((Variable) t).getType() == type);
+    }
+
+    /**
+     * Variables made to unify two variables end with a '$'
+     */
+    private static boolean isCommonVariable(Term v) {
+        String s = v.getName();
+        return s.charAt(s.length() - 1) == '$';
+    }
+
+    /**
+     * A common variable not used yet in the current unification, named by its
+     * number, as the substituted terms are renamed afterwards
+     */
+    private Variable commonVariable() {
+        int t = 0;
+        while (TYPES[t] != type) {
+            t++;
+        }
+        if (commonUsed == common[t].length) {
+            common[t] = Arrays.copyOf(common[t], commonUsed + INITIAL);
+            for (int i = commonUsed; i < common[t].length; i++) {
+                common[t][i] = new Variable(type + "" + (i + 1) + '$');
+            }
+        }
+        return common[t][commonUsed++];
+    }
+
+    /**
+     * The value of a variable in a frame
+     *
+     * @return The value, or null if the variable is not bound
+     */
+    private Term get(int side, Term var) {
+        int i = slotOf(side, var);
+        return (i < 0) ? null : values[side][i];
+    }
+
+    /**
+     * Bind a variable in a frame, keeping the value it replaces on the trail
+     */
+    private void put(int side, Term var, Term value) {
+        int i = slotOf(side, var);
+        if (i >= 0) {
+            if (trailSize == trailSlots.length) {
+                trailSlots = Arrays.copyOf(trailSlots, trailSize * 2);
+                trailValues = Arrays.copyOf(trailValues, trailSize * 2);
+            }
+            trailSlots[trailSize] = (i << 1) | side;
+            trailValues[trailSize++] = values[side][i];
+            values[side][i] = value;
+            return;
+        }
+        int size = sizes[side];
+        if (size == keys[side].length) {
+            keys[side] = Arrays.copyOf(keys[side], size * 2);
+            values[side] = Arrays.copyOf(values[side], size * 2);
+        }
+        keys[side][size] = var;
+        values[side][size] = value;
+        sizes[side] = size + 1;
+    }
+
+    private int slotOf(int side, Term var) {
+        Term[] k = keys[side];
+        for (int i = 0; i < sizes[side]; i++) {
+            if ((k[i] == var) || k[i].equals(var)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Go back to the bindings at a mark: restore the replaced values, latest
+     * first, then drop the bindings added since
+     */
+    private void undo(int mark0, int mark1, int markTrail) {
+        while (trailSize > markTrail) {
+            int slot = trailSlots[--trailSize];
+            values[slot & 1][slot >>> 1] = trailValues[trailSize];
+            trailValues[trailSize] = null;
+        }
+        for (int i = mark0; i < sizes[0]; i++) {
+            keys[0][i] = null;
+            values[0][i] = null;
+        }
+        for (int i = mark1; i < sizes[1]; i++) {
+            keys[1][i] = null;
+            values[1][i] = null;
+        }
+        sizes[0] = mark0;
+        sizes[1] = mark1;
+    }
+}
@@ -26,12 +26,17 @@ package nars.language;
 import java.util.*;
 
 import nars.io.Symbols;
-import nars.storage.Memory;
 
 /**
  * A variable term, which does not correspond to a concept
  */
 public class Variable extends Term {
+
+    /**
+     * The unifier of each thread, reused by all unifications
+     */
+    private static final ThreadLocal<Unifier> UNIFIERS = ThreadLocal.withInitial(Unifier::new);
+
     /**
      * Constructor, from a given variable name
      *
@@ -70,6 +75,26 @@ public class Variable extends Term {
         return false;
     }
 
+    @Override
+    public boolean hasVar() {
+        return true;
+    }
+
+    @Override
+    public boolean hasVarQuery() {
+        return getType() == Symbols.VAR_QUERY;
+    }
+
+    @Override
+    public boolean hasVarIndep() {
+        return getType() == Symbols.VAR_INDEPENDENT;
+    }
+
+    @Override
+    public boolean hasVarDep() {
+        return getType() == Symbols.VAR_DEPENDENT;
+    }
+
     /**
      * The syntactic complexity of a variable is 0, because it does not refer to
      * any concept.
@@ -148,22 +173,16 @@ public class Variable extends Term {
      * @return Whether the unification is possible
      */
     public static boolean unify(char type, Term t1, Term t2, Term compound1, Term compound2) {
-        //System.out.println("456");
-        HashMap<Term, Term> map1 = new HashMap<>();
-        HashMap<Term, Term> map2 = new HashMap<>();    
-        
-        boolean hasSubs = findSubstitute(type, t1, t2, map1, map2); // find substitution
+        Unifier unifier = UNIFIERS.get();
+        boolean hasSubs = unifier.unify(type, t1, t2); // find substitution
         if (hasSubs) {
-//            renameVar(map1, compound1, "-1");
-//            renameVar(map2, compound2, "-2");
-            //System.out.println("compound1 " + compound1.getName());
-            if (!map1.isEmpty()) {
+            HashMap<Term, Term> map1 = unifier.isEmpty(0) ? null : unifier.substitute(0);
+            HashMap<Term, Term> map2 = unifier.isEmpty(1) ? null : unifier.substitute(1);
+            if (map1 != null) {
                 ((CompoundTerm) compound1).applySubstitute(map1);
-                //System.out.println("compound1 " + compound1.getName());
                 ((CompoundTerm) compound1).renameVariables();
-
             }
-            if (!map2.isEmpty()) {
+            if (map2 != null) {
                 ((CompoundTerm) compound2).applySubstitute(map2);
                 ((CompoundTerm) compound2).renameVariables();
             }
@@ -171,115 +190,6 @@ public class Variable extends Term {
         return hasSubs;
     }
 
-    /**
-     * To recursively find a substitution that can unify two Terms without
-     * changing them
-     *
-     * @param type The type of Variable to be substituted
-     * @param term1 The first Term to be unified
-     * @param term2 The second Term to be unified
-     * @param map1 The substitution for term1 formed so far
-     * @param map2 The substitution for term2 formed so far
-     * @return Whether there is a substitution that unifies the two Terms
-     */
-    public static boolean findSubstitute(char type, Term term1, Term term2,
-            HashMap<Term, Term> map1, HashMap<Term, Term> map2) {
-        //System.out.println("789");
-        Term t;
-        
-        /*System.out.println("term1: " + term1.getName());
-        System.out.println("Type: " + type);
-        System.out.println("term2: " + term2.getName());*/
-        
-        if ((term1 instanceof Variable) && (((Variable) term1).getType() == type)) {
-            //System.out.println("987");
-            Variable var1 = (Variable) term1;
-            //System.out.println("term1 type: " + var1.getType());
-            t = map1.get(var1);
-            if (t != null) {    // already mapped
-                return findSubstitute(type, t, term2, map1, map2);
-            } else {            // not mapped yet
-                //System.out.println("term2: " + term2.getName());
-                if ((term2 instanceof Variable) && (((Variable) term2).getType() == type)) {
-                    //System.out.println("term2 is a variable");
-                    Variable CommonVar = makeCommonVariable(term1, term2);
-                    //System.out.println("commonvar: " + CommonVar.getName());
-                    //System.out.println("commonvar: " + CommonVar.getType());
-                    map1.put(var1, CommonVar);  // unify
-                    map2.put(term2, CommonVar);  // unify
-                    //System.out.println("map1: " + map1.toString());
-                    //System.out.println("map2: " + map2.toString());
-                } else {
-                    map1.put(var1, term2);  // elimination
-                    //System.out.println("map1: " + map1.toString());
-                    if (isCommonVariable(var1)) {
-                        map2.put(var1, term2);
-                        //System.out.println("map2: " + map2.toString());
-                    }
-                    //System.out.println("Out map2: " + map2.toString());
-                }
-                return true;
-            }
-        } else if ((term2 instanceof Variable) && (((Variable) term2).getType() == type)) {
-            //System.out.println("654");
-            //System.out.println("term1 is not variable, term2 is variable");
-            Variable var2 = (Variable) term2;
-            /*System.out.println("term2: " + term2.getName());
-            System.out.println("map2: " + map2.toString());*/
-            t = map2.get(var2);
-            if (t != null) {    // already mapped
-                return findSubstitute(type, term1, t, map1, map2);
-            } else {            // not mapped yet
-                map2.put(var2, term1);  // elimination
-                //System.out.println("3 map2: " + map2.toString());
-                if (isCommonVariable(var2)) {
-                    map1.put(var2, term1);
-                    //System.out.println("map1: " + map1.toString());
-                }
-                return true;
-            }
-        } else if ((term1 instanceof CompoundTerm) && term1.getClass().equals(term2.getClass())) {
-            
-            CompoundTerm cTerm1 = (CompoundTerm) term1;
-            CompoundTerm cTerm2 = (CompoundTerm) term2;
-            //System.out.println("cterm1: " + cTerm1.getName());
-            //System.out.println("cterm2: " + cTerm2.getName());
-            if (cTerm1.size() != (cTerm2).size()) {
-                return false;
-            }
-            if ((cTerm1 instanceof ImageExt) && (((ImageExt) cTerm1).getRelationIndex() != ((ImageExt) cTerm2).getRelationIndex())
-                    || (cTerm1 instanceof ImageInt) && (((ImageInt) cTerm1).getRelationIndex() != ((ImageInt) cTerm2).getRelationIndex())) {
-                return false;
-            }
-            ArrayList<Term> list = cTerm1.cloneComponents();
-            //System.out.println("Before shuffle: " + list.toString());
-            if (cTerm1.isCommutative()) {
-                 Collections.shuffle(list, Memory.randomNumber);
-            } 
-            //System.out.println("After shuffle: " + list.toString());
-            for (int i = 0; i < cTerm1.size(); i++) {   // assuming matching order
-                Term t1 = list.get(i);
-                Term t2 = cTerm2.componentAt(i);
-                //System.out.println("t1: " + t1.getName());
-                //System.out.println("t2: " + t2.getName());
-                if (!findSubstitute(type, t1, t2, map1, map2)) {
-                    return false;
-                }
-            }
-            return true;
-        }
-        return term1.equals(term2); // for atomic constant terms
-    }
-
-    private static Variable makeCommonVariable(Term v1, Term v2) {
-        return new Variable(v1.getName() + v2.getName() + '$');
-    }
-
-    private static boolean isCommonVariable(Variable v) {
-        String s = v.getName();
-        return s.charAt(s.length() - 1) == '$';
-    }
-
     /**
      * Check if two terms can be unified
      *
@@ -289,7 +199,7 @@ public class Variable extends Term {
      * @return Whether there is a substitution
      */
     public static boolean hasSubstitute(char type, Term term1, Term term2) {
-        return findSubstitute(type, term1, term2, new HashMap<Term, Term>(), new HashMap<Term, Term>());
+        return UNIFIERS.get().unify(type, term1, term2);
     }
 
     /**
@@ -1,21 +1,31 @@
 package nars.main;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import nars.entity.Stamp;
+import java.util.concurrent.atomic.AtomicLong;
 import nars.entity.Task;
 import nars.io.InputChannel;
 import nars.io.OutputChannel;
+import nars.io.ParseResult;
 import nars.io.StringParser;
 import nars.io.Symbols;
 import nars.storage.InternalExperience;
 import nars.storage.Memory;
 import nars.storage.OveralExperience;
+import static java.util.stream.Collectors.toList;
 
 public class NAR {
 
     /** global DEBUG print switch */
     public static final boolean DEBUG = false;
+    /** Number of lines of a knowledge file read and parsed at a time */
+    private static final int KNOWLEDGE_CHUNK = 4096;
     /** The name of the reasoner */
     protected String name;
     /** The memory of the reasoner */
@@ -36,6 +46,12 @@ public class NAR {
     private long timer;
     /** Budget Threshold - show output if its budget average above threshold */
     private final AtomicInteger silenceValue = new AtomicInteger(Parameters.SILENT_LEVEL);
+    /** Number of input lines rejected so far */
+    private final AtomicLong rejectedInputs = new AtomicLong();
+    /** The last input line rejected, with where and why */
+    private volatile ParseResult<?> lastRejectedInput;
+    /** Fast-fail mode: rejected input lines are only counted, not reported */
+    private volatile boolean fastFailInput;
     /** Internal Experience Buffer for derivations */
     private final InternalExperience internalBuffer;
     /** Overall Experience Buffer for input and tasks from internalBuffer */
@@ -45,9 +61,22 @@ public class NAR {
     private final int internal_Duration = Parameters.MAX_BUFFER_DURATION_FACTOR * Parameters.DURATION_FOR_INTERNAL_BUFFER;
     private final int global_Duration = Parameters.MAX_BUFFER_DURATION_FACTOR * Parameters.DURATION_FOR_GLOBAL_BUFFER;
 
+    /** Sizes of the bags, fixed for the life of the NAR */
+    private final NARConfig config;
+
+    /** Make a NAR with the bag sizes of {@link Parameters} */
     public NAR() {
+        this(new NARConfig());
+    }
+
+    /**
+     * Make a NAR with given bag sizes
+     * @param config The bag sizes
+     */
+    public NAR(NARConfig config) {
+        this.config = config;
         memory = new Memory(this);
-        //System.out.println(memory.newStamp.getOccurrenceTime());
+        //System.out.println(memory.getContext().newStamp.getOccurrenceTime());
         inputChannels = new ArrayList();
         outputChannels = new ArrayList();
         internalBuffer = new InternalExperience(memory, internal_Duration, "Internal");
@@ -55,6 +84,10 @@ public class NAR {
        // narsese_Channel = new Experience_From_Narsese(memory, global_Duration);
     }
     
+    public NARConfig getConfig() {
+        return config;
+    }
+
     public void addInputChannel(InputChannel channel) {
         inputChannels.add(channel);
     }
@@ -78,7 +111,6 @@ public class NAR {
         walkingSteps = 0;
         clock = 0;
         memory.init();
-        Stamp.init();
         //timer = 0;
     }
 
@@ -163,9 +195,11 @@ public class NAR {
                 int i = Integer.parseInt(text);
                 walk(i);
             } catch (NumberFormatException e) {
-                Task task = StringParser.parseExperience(new StringBuffer(text), memory, clock);              
-                if (task != null) {
-                    inputNarseseTask(task);
+                ParseResult<Task> result = StringParser.tryParseExperience(text, memory, clock);
+                if (!result.isValid()) {
+                    rejectInput(result);
+                } else if (result.getValue() != null) {
+                    inputNarseseTask(result.getValue());
                 }
             }
         }
@@ -185,6 +219,101 @@ public class NAR {
             memory.getRecorder().append("!!! Neglected: " + task + "\n");
         }
     }
+
+    /**
+     * Load a file of background knowledge at once, before reasoning on it.
+     * <p>
+     * The file is read by chunks of lines, each parsed in parallel, then the
+     * tasks are numbered and processed in their Concepts one by one, in the
+     * order of the file, so that the serial numbers of their stamps do not
+     * depend on the threads; the reasoning then starts from the Concepts and
+     * beliefs made. An eternal sentence given more than once is loaded once.
+     * Numbers, comments and resets are skipped, as they only make sense in a
+     * timed input, and invalid lines are rejected as in
+     * {@link #textInputLine}.
+     * <p>
+     * The tasks do not go through the experience buffers, nor take working
+     * cycles: the buffers hold a few tasks of the current cycles and drop
+     * the rest, while the knowledge is timeless and to be kept whole.
+     * <p>
+     * The memory must not be working meanwhile, as the parsing reads its
+     * Concepts from several threads.
+     *
+     * @param path The file, one Narsese sentence per line, in UTF-8
+     * @return The number of tasks loaded
+     * @throws IOException If the file cannot be read
+     */
+    public int loadKnowledge(Path path) throws IOException {
+        HashSet<String> loaded = new HashSet<>();
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            List<String> lines = new ArrayList<>(KNOWLEDGE_CHUNK);
+            String line = reader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = reader.readLine();
+                if ((lines.size() == KNOWLEDGE_CHUNK) || (line == null)) {
+                    count += loadKnowledge(lines, loaded);
+                    lines.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Load a chunk of lines of a knowledge file
+     *
+     * @param lines The lines, in the order of the file
+     * @param loaded The keys of the eternal sentences loaded so far
+     * @return The number of tasks loaded
+     */
+    private int loadKnowledge(List<String> lines, HashSet<String> loaded) {
+        List<ParseResult<Task>> results = lines.parallelStream()
+                .map(this::parseKnowledge)
+                .collect(toList());     // in the order of the lines
+        int count = 0;
+        for (ParseResult<Task> result : results) {
+            if (!result.isValid()) {
+                rejectInput(result);
+                continue;
+            }
+            Task task = result.getValue();
+            if ((task == null) || (task.getSentence().isEternal() && !loaded.add(task.getSentence().toKey()))) {
+                continue;
+            }
+            if (task.getBudget().aboveThreshold()) {
+                task.getSentence().getStamp().setSerial(memory.newSerial());
+                memory.immediateProcess(task);
+                count++;
+            } else {
+                memory.getRecorder().append("!!! Neglected: " + task + "\n");
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parse a line of a knowledge file, leaving the serial number of the
+     * stamp to be given in the order of the lines
+     *
+     * @param text The line
+     * @return The task, null for a line that is not a sentence, or the error
+     */
+    private ParseResult<Task> parseKnowledge(String text) {
+        String line = text.trim();
+        if (line.isEmpty() || (line.charAt(0) == Symbols.RESET_MARK) || (line.charAt(0) == Symbols.COMMENT_MARK)) {
+            return ParseResult.valid(null);
+        }
+        boolean number = true;
+        for (int i = 0; number && (i < line.length()); i++) {
+            number = Character.isDigit(line.charAt(i));
+        }
+        if (number) {
+            return ParseResult.valid(null);
+        }
+        return StringParser.tryParseExperience(line, memory, clock, () -> 0);
+    }
     
     public Memory getMemory() {
         return memory;
@@ -216,6 +345,54 @@ public class NAR {
         return silenceValue;
     }
 
+    /**
+     * Count an input that cannot be used, and send it to the output channels
+     * unless in fast-fail mode; called for the lines of text, by the parser
+     * and by the input channels
+     *
+     * @param result Where and why the input is rejected
+     */
+    public void rejectInput(ParseResult<?> result) {
+        rejectedInputs.incrementAndGet();
+        lastRejectedInput = result;
+        if (!fastFailInput) {
+            memory.generalInfoReport(result.toString());
+        }
+    }
+
+    /**
+     * The number of inputs rejected since the NAR was made
+     *
+     * @return The count of rejected inputs
+     */
+    public long getRejectedInputs() {
+        return rejectedInputs.get();
+    }
+
+    /**
+     * The last input rejected, to trace it back to its producer
+     *
+     * @return The input with where and why it is rejected, null if there is
+     * none
+     */
+    public ParseResult<?> getLastRejectedInput() {
+        return lastRejectedInput;
+    }
+
+    public boolean isFastFailInput() {
+        return fastFailInput;
+    }
+
+    /**
+     * Set the fast-fail mode, for a high volume of input: a rejected line is
+     * counted and kept as the last one, without being reported
+     *
+     * @param fastFailInput Whether rejected inputs are not reported
+     */
+    public void setFastFailInput(boolean fastFailInput) {
+        this.fastFailInput = fastFailInput;
+    }
+
     /**
      * determines the end of {@link NARSBatch} program
      * @return 
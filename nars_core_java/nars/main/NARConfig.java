@@ -0,0 +1,339 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.main;
+
+import java.util.Properties;
+
+/**
+ * The bag sizes and the storage and work cycle switches of a NAR instance,
+ * fixed when the NAR is made.
+ * <p>
+ * The initial values are those of {@link Parameters}. A deployment profile can
+ * override them from a Properties file, with the keys listed below, so that
+ * the same build runs with small bags on a constrained machine and large ones
+ * on a server. A configuration cannot be changed once built; other values are
+ * set through a {@link Builder}.
+ */
+public final class NARConfig {
+
+    /** Property keys of a profile */
+    public static final String CONCEPT_BAG_SIZE = "nars.conceptBagSize";
+    public static final String TASK_LINK_BAG_SIZE = "nars.taskLinkBagSize";
+    public static final String TERM_LINK_BAG_SIZE = "nars.termLinkBagSize";
+    public static final String NOVEL_TASK_BAG_SIZE = "nars.novelTaskBagSize";
+    public static final String BAG_LEVEL = "nars.bagLevel";
+    public static final String BAG_THRESHOLD = "nars.bagThreshold";
+    public static final String BAG_KEY_IDS = "nars.bagKeyIds";
+    public static final String CONCEPT_BAG_STRIPES = "nars.conceptBagStripes";
+    public static final String FIRING_THREADS = "nars.firingThreads";
+    public static final String CONCEPTS_FIRED_PER_CYCLE = "nars.conceptsFiredPerCycle";
+    public static final String BAG_LAZY_FORGETTING = "nars.bagLazyForgetting";
+    public static final String CONCEPT_TERM_CODES = "nars.conceptTermCodes";
+    public static final String TERM_INDEX = "nars.termIndex";
+
+    /** Size of ConceptBag */
+    private final int conceptBagSize;
+    /** Size of TaskLinkBag */
+    private final int taskLinkBagSize;
+    /** Size of TermLinkBag */
+    private final int termLinkBagSize;
+    /** Size of NovelTaskBag */
+    private final int novelTaskBagSize;
+    /** Level granularity in Bag, from 1 */
+    private final int bagLevel;
+    /** Level separation in Bag, one digit, for display (run-time adjustable) and management (fixed) */
+    private final int bagThreshold;
+    /** Key Bag name tables by the long ids of the keys instead of the Strings */
+    private final boolean bagKeyIds;
+    /** Number of independently locked stripes of ConceptBag, 1 for a single-threaded bag */
+    private final int conceptBagStripes;
+    /** Number of threads firing concepts in parallel, 1 to fire one concept per cycle */
+    private final int firingThreads;
+    /** Number of concepts fired per cycle when firingThreads is above 1 */
+    private final int conceptsFiredPerCycle;
+    /** Let Bag items decay with the cycles since their last budget update, applied when they are read, instead of at each putBack */
+    private final boolean bagLazyForgetting;
+    /** Keep the Term of a Concept as a TermCode, decoded when needed, instead of the Term and its name; best with bagKeyIds */
+    private final boolean conceptTermCodes;
+    /** Index the terms of the Concepts by structure, so questions with query variables also look for answers there */
+    private final boolean termIndex;
+
+    /** The configuration with the values of {@link Parameters} */
+    public NARConfig() {
+        this(new Builder());
+    }
+
+    private NARConfig(Builder builder) {
+        conceptBagSize = builder.conceptBagSize;
+        taskLinkBagSize = builder.taskLinkBagSize;
+        termLinkBagSize = builder.termLinkBagSize;
+        novelTaskBagSize = builder.novelTaskBagSize;
+        bagLevel = builder.bagLevel;
+        bagThreshold = builder.bagThreshold;
+        bagKeyIds = builder.bagKeyIds;
+        conceptBagStripes = builder.conceptBagStripes;
+        firingThreads = builder.firingThreads;
+        conceptsFiredPerCycle = builder.conceptsFiredPerCycle;
+        bagLazyForgetting = builder.bagLazyForgetting;
+        conceptTermCodes = builder.conceptTermCodes;
+        termIndex = builder.termIndex;
+    }
+
+    /**
+     * Start a configuration from the values of {@link Parameters}
+     *
+     * @return The builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Read a profile; the keys that are missing keep the values of
+     * {@link Parameters}
+     *
+     * @param profile The properties of the profile
+     * @return The configuration
+     * @throws IllegalArgumentException If a value is not a valid number or
+     * boolean
+     */
+    public static NARConfig fromProperties(Properties profile) {
+        Builder builder = new Builder();
+        return builder.conceptBagSize(intValue(profile, CONCEPT_BAG_SIZE, builder.conceptBagSize))
+                .taskLinkBagSize(intValue(profile, TASK_LINK_BAG_SIZE, builder.taskLinkBagSize))
+                .termLinkBagSize(intValue(profile, TERM_LINK_BAG_SIZE, builder.termLinkBagSize))
+                .novelTaskBagSize(intValue(profile, NOVEL_TASK_BAG_SIZE, builder.novelTaskBagSize))
+                .bagLevel(intValue(profile, BAG_LEVEL, builder.bagLevel))
+                .bagThreshold(intValue(profile, BAG_THRESHOLD, builder.bagThreshold))
+                .bagKeyIds(booleanValue(profile, BAG_KEY_IDS, builder.bagKeyIds))
+                .conceptBagStripes(intValue(profile, CONCEPT_BAG_STRIPES, builder.conceptBagStripes))
+                .firingThreads(intValue(profile, FIRING_THREADS, builder.firingThreads))
+                .conceptsFiredPerCycle(intValue(profile, CONCEPTS_FIRED_PER_CYCLE, builder.conceptsFiredPerCycle))
+                .bagLazyForgetting(booleanValue(profile, BAG_LAZY_FORGETTING, builder.bagLazyForgetting))
+                .conceptTermCodes(booleanValue(profile, CONCEPT_TERM_CODES, builder.conceptTermCodes))
+                .termIndex(booleanValue(profile, TERM_INDEX, builder.termIndex))
+                .build();
+    }
+
+    private static int intValue(Properties profile, String key, int defaultValue) {
+        String value = profile.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number for " + key + ": " + value);
+        }
+    }
+
+    private static boolean booleanValue(Properties profile, String key, boolean defaultValue) {
+        String value = profile.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        switch (value.trim()) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                throw new IllegalArgumentException("not a boolean for " + key + ": " + value);
+        }
+    }
+
+    public int getConceptBagSize() {
+        return conceptBagSize;
+    }
+
+    public int getTaskLinkBagSize() {
+        return taskLinkBagSize;
+    }
+
+    public int getTermLinkBagSize() {
+        return termLinkBagSize;
+    }
+
+    public int getNovelTaskBagSize() {
+        return novelTaskBagSize;
+    }
+
+    public int getBagLevel() {
+        return bagLevel;
+    }
+
+    public int getBagThreshold() {
+        return bagThreshold;
+    }
+
+    public boolean isBagKeyIds() {
+        return bagKeyIds;
+    }
+
+    public int getConceptBagStripes() {
+        return conceptBagStripes;
+    }
+
+    public int getFiringThreads() {
+        return firingThreads;
+    }
+
+    public int getConceptsFiredPerCycle() {
+        return conceptsFiredPerCycle;
+    }
+
+    public boolean isBagLazyForgetting() {
+        return bagLazyForgetting;
+    }
+
+    public boolean isConceptTermCodes() {
+        return conceptTermCodes;
+    }
+
+    public boolean isTermIndex() {
+        return termIndex;
+    }
+
+    private static int positive(int value, String key) {
+        if (value < 1) {
+            throw new IllegalArgumentException(key + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * The values of a configuration to be built, checked as they are set
+     */
+    public static final class Builder {
+
+        private int conceptBagSize = Parameters.CONCEPT_BAG_SIZE;
+        private int taskLinkBagSize = Parameters.TASK_LINK_BAG_SIZE;
+        private int termLinkBagSize = Parameters.TERM_LINK_BAG_SIZE;
+        private int novelTaskBagSize = Parameters.TASK_BUFFER_SIZE;
+        private int bagLevel = Parameters.BAG_LEVEL;
+        private int bagThreshold = Parameters.BAG_THRESHOLD;
+        private boolean bagKeyIds = Parameters.BAG_KEY_IDS;
+        private int conceptBagStripes = Parameters.CONCEPT_BAG_STRIPES;
+        private int firingThreads = Parameters.FIRING_THREADS;
+        private int conceptsFiredPerCycle = Parameters.CONCEPTS_FIRED_PER_CYCLE;
+        private boolean bagLazyForgetting = Parameters.BAG_LAZY_FORGETTING;
+        private boolean conceptTermCodes = Parameters.CONCEPT_TERM_CODES;
+        private boolean termIndex = Parameters.TERM_INDEX;
+
+        private Builder() {
+        }
+
+        public Builder conceptBagSize(int conceptBagSize) {
+            this.conceptBagSize = positive(conceptBagSize, CONCEPT_BAG_SIZE);
+            return this;
+        }
+
+        public Builder taskLinkBagSize(int taskLinkBagSize) {
+            this.taskLinkBagSize = positive(taskLinkBagSize, TASK_LINK_BAG_SIZE);
+            return this;
+        }
+
+        public Builder termLinkBagSize(int termLinkBagSize) {
+            this.termLinkBagSize = positive(termLinkBagSize, TERM_LINK_BAG_SIZE);
+            return this;
+        }
+
+        public Builder novelTaskBagSize(int novelTaskBagSize) {
+            this.novelTaskBagSize = positive(novelTaskBagSize, NOVEL_TASK_BAG_SIZE);
+            return this;
+        }
+
+        /**
+         * Set the number of priority levels of the bags, the threshold staying
+         * below it
+         *
+         * @param bagLevel The number of levels
+         * @return This builder
+         */
+        public Builder bagLevel(int bagLevel) {
+            this.bagLevel = positive(bagLevel, BAG_LEVEL);
+            if (bagThreshold > bagLevel) {
+                bagThreshold = bagLevel;
+            }
+            return this;
+        }
+
+        /**
+         * Set the level under which only one item at a time is taken out of a
+         * bag level
+         *
+         * @param bagThreshold The threshold, from 0 to the number of levels
+         * @return This builder
+         */
+        public Builder bagThreshold(int bagThreshold) {
+            if (bagThreshold < 0 || bagThreshold > bagLevel) {
+                throw new IllegalArgumentException(BAG_THRESHOLD + " out of [0, " + bagLevel + "]: " + bagThreshold);
+            }
+            this.bagThreshold = bagThreshold;
+            return this;
+        }
+
+        public Builder bagKeyIds(boolean bagKeyIds) {
+            this.bagKeyIds = bagKeyIds;
+            return this;
+        }
+
+        public Builder conceptBagStripes(int conceptBagStripes) {
+            this.conceptBagStripes = positive(conceptBagStripes, CONCEPT_BAG_STRIPES);
+            return this;
+        }
+
+        public Builder firingThreads(int firingThreads) {
+            this.firingThreads = positive(firingThreads, FIRING_THREADS);
+            return this;
+        }
+
+        public Builder conceptsFiredPerCycle(int conceptsFiredPerCycle) {
+            this.conceptsFiredPerCycle = positive(conceptsFiredPerCycle, CONCEPTS_FIRED_PER_CYCLE);
+            return this;
+        }
+
+        public Builder bagLazyForgetting(boolean bagLazyForgetting) {
+            this.bagLazyForgetting = bagLazyForgetting;
+            return this;
+        }
+
+        public Builder conceptTermCodes(boolean conceptTermCodes) {
+            this.conceptTermCodes = conceptTermCodes;
+            return this;
+        }
+
+        public Builder termIndex(boolean termIndex) {
+            this.termIndex = termIndex;
+            return this;
+        }
+
+        /**
+         * @return The configuration with the values set so far
+         */
+        public NARConfig build() {
+            return new NARConfig(this);
+        }
+    }
+}
@@ -106,8 +106,22 @@ public class Parameters {
     public static final int BAG_THRESHOLD = 10;
     /** Hashtable load factor in Bag */
     public static final float LOAD_FACTOR = (float) 0.5;
+    /** Key Bag name tables by the long ids of the keys instead of the Strings, by default; see NARConfig */
+    public static final boolean BAG_KEY_IDS = false;
+    /** Let Bag items decay with the cycles since their last budget update, applied when they are read, instead of at each putBack, by default; see NARConfig */
+    public static final boolean BAG_LAZY_FORGETTING = false;
     /** Size of ConceptBag */
     public static final int CONCEPT_BAG_SIZE = 1000;
+    /** Number of independently locked stripes of ConceptBag, 1 for a single-threaded bag, by default; see NARConfig */
+    public static final int CONCEPT_BAG_STRIPES = 1;
+    /** Keep the Term of a Concept as a TermCode, decoded when needed, instead of the Term and its name; best with BAG_KEY_IDS, by default; see NARConfig */
+    public static final boolean CONCEPT_TERM_CODES = false;
+    /** Index the terms of the Concepts by structure, so questions with query variables also look for answers there, by default; see NARConfig */
+    public static final boolean TERM_INDEX = false;
+    /** Number of threads firing concepts in parallel, 1 to fire one concept per cycle, by default; see NARConfig */
+    public static final int FIRING_THREADS = 1;
+    /** Number of concepts fired per cycle when FIRING_THREADS is above 1, by default; see NARConfig */
+    public static final int CONCEPTS_FIRED_PER_CYCLE = 4;
     /** Size of TaskLinkBag */
     public static final int TASK_LINK_BAG_SIZE = 20;
     /** Size of TermLinkBag */
@@ -127,6 +141,10 @@ public class Parameters {
     public static final int TERM_LINK_RECORD_LENGTH = 10;
     /** Maximum number of beliefs kept in a Concept */
     public static final int MAXIMUM_BELIEF_LENGTH = 7;
+    /** Maximum number of temporal beliefs kept in a Concept, besides the eternal ones */
+    public static final int MAXIMUM_TEMPORAL_BELIEF_LENGTH = 7;
+    /** Number of temporal beliefs dropped from a Concept that are eternalized together */
+    public static final int ETERNALIZATION_BATCH = 4;
     /** Maximum number of goals kept in a Concept */
     public static final int MAXIMUM_QUESTIONS_LENGTH = 5;
     
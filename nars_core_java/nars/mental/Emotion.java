@@ -45,7 +45,7 @@ public class Emotion {
         
     }
     
-    public void adjustSatisfation(float newValue, float weight, Memory memory){
+    public synchronized void adjustSatisfation(float newValue, float weight, Memory memory){
         
         happy += newValue * weight;
         happy /= 1.0f + weight;
@@ -70,7 +70,7 @@ public class Emotion {
             Term subject = Term.SELF;
             Inheritance inh = Inheritance.make(subject, predicate, memory);
             TruthValue truth = new TruthValue(happy, Parameters.DEFAULT_JUDGMENT_CONFIDENCE);
-            Sentence sentence = new Sentence(inh, Symbols.JUDGMENT_MARK, truth, new Stamp(memory.getTime()));
+            Sentence sentence = new Sentence(inh, Symbols.JUDGMENT_MARK, truth, new Stamp(memory.newSerial(), memory.getTime()));
             sentence.getStamp().setOccurrenceTime(memory.getTime());
             
             BudgetValue budgetOfNewTask = new BudgetValue(Parameters.DEFAULT_JUDGMENT_PRIORITY,
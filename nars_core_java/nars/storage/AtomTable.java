@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The dictionary of the atomic terms of a Memory, numbering their names in
+ * the order they are first met, for {@link nars.language.TermCode}.
+ * <p>
+ * Entries are never removed, as a number may be held in the code of any
+ * Concept; the atoms of a knowledge base are few compared to its compounds.
+ */
+public class AtomTable {
+
+    /** The largest number of atoms, as a number takes 24 bits in a code */
+    public static final int CAPACITY = 1 << 24;
+    /** The numbers, by name */
+    private final HashMap<String, Integer> numbers = new HashMap<>();
+    /** The names, by number */
+    private final ArrayList<String> names = new ArrayList<>();
+
+    /**
+     * Get the number of an atom, numbering it if it is new
+     *
+     * @param name The name of the atom
+     * @return The number of the atom
+     */
+    public synchronized int numberOf(String name) {
+        Integer number = numbers.get(name);
+        if (number == null) {
+            if (names.size() == CAPACITY) {
+                throw new IllegalStateException("too many atoms: " + CAPACITY);
+            }
+            number = names.size();
+            numbers.put(name, number);
+            names.add(name);
+        }
+        return number;
+    }
+
+    /**
+     * Get the name of an atom
+     *
+     * @param number The number of the atom
+     * @return The name of the atom
+     */
+    public synchronized String nameOf(int number) {
+        return names.get(number);
+    }
+
+    /**
+     * The number of atoms
+     *
+     * @return The size of the table
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Drop all atoms, together with the Concepts whose codes refer to them
+     */
+    public synchronized void clear() {
+        numbers.clear();
+        names.clear();
+    }
+}
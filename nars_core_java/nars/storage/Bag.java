@@ -24,6 +24,7 @@ import java.util.*;
 
 import nars.entity.Item;
 import nars.inference.BudgetFunctions;
+import nars.main.NARConfig;
 import nars.main.Parameters;
 
 /**
@@ -37,6 +38,10 @@ import nars.main.Parameters;
  * The bag space is divided by a threshold, above which is mainly time
  * management, and below, space management. Differences: (1) level selection vs.
  * item selection, (2) decay rate
+ * <p>
+ * The methods changing the levels hold the lock of the Bag, which is free but
+ * for the thread working on the Bag, so that a display can take a consistent
+ * {@link #snapshot()} of it from another thread.
  *
  * @param <E> The type of the Item in the Bag
  */
@@ -45,31 +50,69 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
     /**
      * priority levels
      */
-    private static final int TOTAL_LEVEL = Parameters.BAG_LEVEL;
+    private final int TOTAL_LEVEL;
     /**
      * firing threshold
      */
-    private static final int THRESHOLD = Parameters.BAG_THRESHOLD;
+    private final int THRESHOLD;
     /**
      * relative threshold, only calculate once
      */
-    private static final float RELATIVE_THRESHOLD = (float) THRESHOLD / (float) TOTAL_LEVEL;
+    private final float RELATIVE_THRESHOLD;
     /**
      * hashtable load factor
      */
     private static final float LOAD_FACTOR = Parameters.LOAD_FACTOR;       //
     /**
-     * shared DISTRIBUTOR that produce the probability distribution
+     * whether the name table is keyed by the ids of the keys
+     */
+    private final boolean KEY_IDS;
+    /**
+     * whether items decay with the cycles since their last budget update
+     * when read, instead of at each putBack
      */
-    private static final Distributor DISTRIBUTOR = new Distributor(TOTAL_LEVEL); //
+    private final boolean LAZY_FORGETTING;
     /**
-     * mapping from key to item
+     * DISTRIBUTOR that produce the probability distribution, shared by the
+     * Bags with the same number of levels
+     */
+    private final Distributor DISTRIBUTOR;
+    /**
+     * mapping from key to item, null when keyed by ids
      */
     private HashMap<String, E> nameTable;
     /**
-     * array of lists of items, for items on different level
+     * mapping from key id to item, null when keyed by Strings
+     */
+    private IdTable<E> idTable;
+    /**
+     * first item of each level, the levels being intrusive doubly-linked lists
+     * threaded through {@link Item#getBagNext()}, so that an item is removed
+     * from its level in constant time
+     */
+    private Item[] levelHead;
+    /**
+     * last item of each level, where new items are appended (FIFO)
+     */
+    private Item[] levelTail;
+    /**
+     * number of items in each level
+     */
+    private int[] levelSize;
+    /**
+     * occupancy bitmap of the levels, bit n of word n/64 set when level n is
+     * not empty
      */
-    private ArrayList<LinkedList<E>> itemTable;
+    private long[] occupied;
+    /**
+     * indexes of the DISTRIBUTOR that pick a non-empty level, bit n of word
+     * n/64 set when the level at index n is not empty
+     */
+    private long[] pickable;
+    /**
+     * summary of pickable, bit w of word w/64 set when word w of it is not 0
+     */
+    private long[] pickableWords;
     /**
      * defined in different bags
      */
@@ -90,17 +133,35 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * maximum number of items to be taken out at current level
      */
     private int currentCounter;
+    /**
+     * number of items found in a level other than the one their priority
+     * belongs to, and moved there by takeOut
+     */
+    private long relocations;
     /**
      * reference to memory
      */
     protected Memory memory;
     
     private BagObserver<E> bagObserver = new NullBagObserver<>();
+    /**
+     * whether the observer is sent the content on every change
+     */
+    private boolean pushingObserver = false;
+    /**
+     * whether the observer pulls snapshots of the content at its own pace
+     */
+    private boolean pollingObserver = false;
+    /**
+     * number of changes so far, read by a polling observer; only written by
+     * the thread working on the bag
+     */
+    private volatile long version;
     
     /**
      * The display level; initialized at lowest
      */
-    private int showLevel = THRESHOLD;
+    private int showLevel;
 
     /**
      * constructor, called from subclasses
@@ -108,17 +169,51 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @param memory The reference to memory
      */
     protected Bag(Memory memory) {
+        this(memory, -1);
+    }
+
+    /**
+     * constructor with a capacity other than the one of the concrete subclass
+     *
+     * @param memory The reference to memory
+     * @param capacity The capacity, or -1 for {@link #capacity()}
+     */
+    protected Bag(Memory memory, int capacity) {
         this.memory = memory;
-        capacity = capacity();
+        NARConfig config = memory.getConfig();
+        TOTAL_LEVEL = config.getBagLevel();
+        THRESHOLD = config.getBagThreshold();
+        RELATIVE_THRESHOLD = (float) THRESHOLD / (float) TOTAL_LEVEL;
+        KEY_IDS = config.isBagKeyIds();
+        LAZY_FORGETTING = config.isBagLazyForgetting();
+        DISTRIBUTOR = Distributor.forRange(TOTAL_LEVEL);
+        showLevel = THRESHOLD;
+        this.capacity = (capacity < 0) ? capacity() : capacity;
         init();
     }
 
-    public void init() {
-        itemTable = new ArrayList<>(TOTAL_LEVEL);
-        for (int i = 0; i < TOTAL_LEVEL; i++) {
-            itemTable.add(new LinkedList<E>());
+    public synchronized void init() {
+        if (levelHead != null) {
+            for (int i = 0; i < TOTAL_LEVEL; i++) {   // release the items still linked in
+                Item item = levelHead[i];
+                while (item != null) {
+                    Item next = item.getBagNext();
+                    unlinked(item);
+                    item = next;
+                }
+            }
+        }
+        levelHead = new Item[TOTAL_LEVEL];
+        levelTail = new Item[TOTAL_LEVEL];
+        levelSize = new int[TOTAL_LEVEL];
+        occupied = new long[(TOTAL_LEVEL + 63) >>> 6];
+        pickable = new long[(DISTRIBUTOR.capacity() + 63) >>> 6];
+        pickableWords = new long[(pickable.length + 63) >>> 6];
+        if (KEY_IDS) {
+            idTable = new IdTable<>(capacity, LOAD_FACTOR);
+        } else {
+            nameTable = new HashMap<>((int) (capacity / LOAD_FACTOR), LOAD_FACTOR);
         }
-        nameTable = new HashMap<>((int) (capacity / LOAD_FACTOR), LOAD_FACTOR);
         currentLevel = TOTAL_LEVEL - 1;
         levelIndex = capacity % TOTAL_LEVEL; // so that different bags start at different point
         mass = 0;
@@ -146,7 +241,7 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @return The number of items
      */
     public int size() {
-        return nameTable.size();
+        return KEY_IDS ? idTable.size() : nameTable.size();
     }
 
     /**
@@ -172,7 +267,7 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @return Whether the Item is in the Bag
      */
     public boolean contains(E it) {
-        return nameTable.containsValue(it);
+        return KEY_IDS ? idTable.containsValue(it) : nameTable.containsValue(it);
     }
 
     /**
@@ -182,7 +277,27 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @return The Item with the given key
      */
     public E get(String key) {
-        return nameTable.get(key);
+        E item = KEY_IDS ? idTable.get(IdTable.idOf(key), key) : nameTable.get(key);
+        if (LAZY_FORGETTING && item != null) {
+            decay(item);
+        }
+        return item;
+    }
+
+    /**
+     * Get an Item by key, with the id of the key already known, which saves
+     * hashing the key in a Bag keyed by ids
+     *
+     * @param keyId The id of the key, see {@link Item#getKeyId()}
+     * @param key The key of the Item
+     * @return The Item with the given key
+     */
+    public E get(long keyId, String key) {
+        E item = KEY_IDS ? idTable.get(keyId, key) : nameTable.get(key);
+        if (LAZY_FORGETTING && item != null) {
+            decay(item);
+        }
+        return item;
     }
 
     /**
@@ -191,17 +306,22 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @param newItem The new Item
      * @return Whether the new Item is added into the Bag
      */
-    public boolean putIn(E newItem) {
-        String newKey = newItem.getKey();
-        E oldItem = nameTable.put(newKey, newItem);
+    public synchronized boolean putIn(E newItem) {
+        E oldItem = KEY_IDS ? idTable.put(newItem) : nameTable.put(newItem.getKey(), newItem);
+        if (LAZY_FORGETTING) {
+            decay(newItem);
+        }
         if (oldItem != null) {                  // merge duplications
             outOfBase(oldItem);
+            if (LAZY_FORGETTING) {
+                decay(oldItem);
+            }
             newItem.merge(oldItem);
         }
         E overflowItem = intoBase(newItem);  // put the (new or merged) item into itemTable
         if (overflowItem != null) {             // remove overflow
-            String overflowKey = overflowItem.getKey();
-            nameTable.remove(overflowKey);
+            removeKey(overflowItem);
+            dropped(overflowItem);
             return (overflowItem != newItem);
         } else {
             return true;
@@ -211,77 +331,219 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
     /**
      * Put an item back into the itemTable
      * <p>
-     * The only place where the forgetting rate is applied
+     * The only place where the forgetting rate is applied, unless
+     * lazy forgetting is configured: then the decay is applied by the elapsed
+     * cycles whenever an item is read, put in, picked out or found first in
+     * its level, see {@link #decay}
      *
      * @param oldItem The Item to put back
      * @return Whether the new Item is added into the Bag
      */
-    public boolean putBack(E oldItem) {
-        BudgetFunctions.forget(oldItem.getBudget(), forgetRate(), RELATIVE_THRESHOLD);
+    public synchronized boolean putBack(E oldItem) {
+        if (!LAZY_FORGETTING) {
+            BudgetFunctions.forget(oldItem.getBudget(), forgetRate(), RELATIVE_THRESHOLD);
+        }
         return putIn(oldItem);
     }
 
     /**
      * Choose an Item according to priority distribution and take it out of the
      * Bag
+     * <p>
+     * Items whose priority has changed since they were filed are moved to
+     * their level when found first in the selected level, after which the
+     * next item is tried, or another level selected if none is left. After
+     * TOTAL_LEVEL levels emptied that way, the first item of the level
+     * selected next is taken as it is, so that the work is bounded after a
+     * burst of priority changes.
      *
      * @return The selected Item
      */
-    public E takeOut() {
-        if (nameTable.isEmpty()) { // empty bag
+    public synchronized E takeOut() {
+        if (isEmpty() || mass == 0) { // empty bag
             return null;
         }
-        if (emptyLevel(currentLevel) || (currentCounter == 0)) { // done with the current level
-            currentLevel = DISTRIBUTOR.pick(levelIndex);
-            levelIndex = DISTRIBUTOR.next(levelIndex);
-            while (emptyLevel(currentLevel)) {          // look for a non-empty level
-                currentLevel = DISTRIBUTOR.pick(levelIndex);
-                levelIndex = DISTRIBUTOR.next(levelIndex);
+        for (int round = 0; round < TOTAL_LEVEL; round++) {
+            if (emptyLevel(currentLevel) || (currentCounter == 0)) { // done with the current level
+                selectLevel();
             }
-            if (currentLevel < THRESHOLD) { // for dormant levels, take one item
-                currentCounter = 1;
-            } else {                  // for active levels, take all current items
-                currentCounter = itemTable.get(currentLevel).size();
+            if (relocateStale(currentLevel)) {  // the first item belongs to the level
+                return takeOutCurrent();
             }
         }
-        E selected = takeOutFirst(currentLevel); // take out the first item in the level
-        int belongingLevel = getLevel(selected);
-        if(currentLevel != belongingLevel){
-            intoBase(selected);
-            return takeOut();
+        if (emptyLevel(currentLevel) || (currentCounter == 0)) {
+            selectLevel();
         }
-        
+        return takeOutCurrent();
+    }
+
+    /**
+     * Select the next level to take items out of, according to the
+     * distributor, and the number of items to take from it
+     * <p>
+     * The level is the first non-empty one the distributor picks from the
+     * current index on, which keeps the selection in proportion to the level.
+     * Instead of walking the distributor one index at a time, up to a whole
+     * cycle of TOTAL_LEVEL * (TOTAL_LEVEL + 1) / 2 steps, the index is found
+     * in the bitmap of the indexes picking a non-empty level, in a few word
+     * operations, with the same result as the walk
+     */
+    private void selectLevel() {
+        int index = nextPickable(levelIndex);
+        currentLevel = DISTRIBUTOR.pick(index);
+        levelIndex = DISTRIBUTOR.next(index);
+        if (currentLevel < THRESHOLD) { // for dormant levels, take one item
+            currentCounter = 1;
+        } else {                  // for active levels, take all current items
+            currentCounter = levelSize[currentLevel];
+        }
+    }
+
+    /**
+     * Move the items at the front of a level that belong to other levels
+     * to the end of those, up to the first one that belongs to the level
+     *
+     * @param level The level index
+     * @return Whether an item that belongs to the level is left first in it
+     */
+    @SuppressWarnings("unchecked")
+    private boolean relocateStale(int level) {
+        boolean moved = false;
+        Item first = levelHead[level];
+        while (first != null) {
+            E item = (E) first;
+            if (LAZY_FORGETTING) {
+                decay(item);                    // may move it to a lower level
+            }
+            int belongingLevel = getLevel(item);
+            if (belongingLevel == level) {
+                break;
+            }
+            first = item.getBagNext();
+            unlink(item);
+            linkLast(item, belongingLevel);
+            mass += belongingLevel - level;
+            relocations++;
+            moved = true;
+        }
+        if (moved) {
+            refresh();
+        }
+        return first != null;
+    }
+
+    /**
+     * Take the first item out of the current level, and out of the Bag
+     *
+     * @return The selected Item
+     */
+    private E takeOutCurrent() {
+        E selected = takeOutFirst(currentLevel); // take out the first item in the level
         currentCounter--;
-        nameTable.remove(selected.getKey());
+        removeKey(selected);
         refresh();
         return selected;
     }
 
+    /**
+     * Get the number of items moved to another level by takeOut, since the
+     * Bag was made
+     *
+     * @return The relocation counter
+     */
+    public long getRelocations() {
+        return relocations;
+    }
+
     /**
      * Pick an item by key, then remove it from the bag
      *
      * @param key The given key
      * @return The Item with the key
      */
-    public E pickOut(String key) {
-        E picked = nameTable.get(key);
+    public synchronized E pickOut(String key) {
+        E picked = get(key);
         
         if (picked != null) {
             outOfBase(picked);
-            nameTable.remove(key);
+            removeKey(picked);
         }
         
         return picked;
     }
-    
+
+    /**
+     * Pick the item with the key of a given one, then remove it from the bag;
+     * in a Bag keyed by ids, the key is neither hashed nor, for a Concept kept
+     * as a code, made again
+     *
+     * @param item The item, or another with the same key
+     * @return The Item with the key
+     */
+    public synchronized E pickOut(E item) {
+        if (!KEY_IDS) {
+            return pickOut(item.getKey());
+        }
+        E picked = idTable.get(item);
+        if (picked != null) {
+            if (LAZY_FORGETTING) {
+                decay(picked);
+            }
+            outOfBase(picked);
+            idTable.remove(picked);
+        }
+        return picked;
+    }
+
+    /**
+     * Remove an item from the name table
+     *
+     * @param item The Item to be removed
+     */
+    private void removeKey(E item) {
+        if (KEY_IDS) {
+            idTable.remove(item);
+        } else {
+            nameTable.remove(item.getKey());
+        }
+    }
+
+    /**
+     * Bring the priority of an item up to date with lazy forgetting, applying
+     * the decay of the cycles since its last update; the level it is filed in
+     * is left as it is, and corrected when it is taken out
+     *
+     * @param item The Item read from the Bag, or put into it
+     */
+    private void decay(E item) {
+        long now = memory.getTime();
+        long last = item.getBudgetTime();
+        if (last >= 0 && now > last) {
+            BudgetFunctions.forget(item.getBudget(), forgetRate(), RELATIVE_THRESHOLD, now - last);
+        }
+        item.setBudgetTime(now);
+    }
+
+    /**
+     * Called when an Item leaves the Bag for lack of room, after it is removed
+     * from the name table; nothing to do by default
+     *
+     * @param item The Item dropped, which may be the one just put in
+     */
+    protected void dropped(E item) {
+    }
+
     /**
      * Remove an item from itemTable, then adjust mass
      *
      * @param oldItem The Item to be removed
      */
-    protected void outOfBase(E oldItem) {
-        int level = getLevel(oldItem);
-        itemTable.get(level).remove(oldItem);
+    protected synchronized void outOfBase(E oldItem) {
+        int level = oldItem.getBagLevel();
+        if (level < 0) {                        // not filed in any level
+            return;
+        }
+        unlink(oldItem);
         mass -= (level + 1);
         refresh();
     }
@@ -293,7 +555,81 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @return Whether that level is empty
      */
     protected boolean emptyLevel(int n) {
-        return (itemTable.get(n).isEmpty());
+        return (occupied[n >>> 6] & (1L << n)) == 0;     // shift distance is taken modulo 64
+    }
+
+    /**
+     * Find the first index of the DISTRIBUTOR, from a given one on and
+     * wrapping around, that picks a non-empty level; there must be one
+     *
+     * @param from The index to start from
+     * @return The index found
+     */
+    private int nextPickable(int from) {
+        int w = from >>> 6;
+        long bits = pickable[w] & (-1L << from);      // shift distance is taken modulo 64
+        if (bits != 0) {
+            return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        int next = nextPickableWord(w + 1);
+        if (next < 0) {
+            next = nextPickableWord(0);                 // wrap around, maybe back to w
+        }
+        return (next << 6) + Long.numberOfTrailingZeros(pickable[next]);
+    }
+
+    /**
+     * Find the first non-zero word of pickable from a given one on
+     *
+     * @param from The word to start from
+     * @return The word index, or -1 if the words from there on are all 0
+     */
+    private int nextPickableWord(int from) {
+        int first = from >>> 6;
+        for (int s = first; s < pickableWords.length; s++) {
+            long bits = (s == first) ? pickableWords[s] & (-1L << from) : pickableWords[s];
+            if (bits != 0) {
+                return (s << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Mark the indexes of the DISTRIBUTOR picking a level as pickable or not,
+     * when the level gets its first item or loses its last one; a level is at
+     * as many indexes as its number plus one
+     *
+     * @param level The level
+     * @param filled Whether the level is now not empty
+     */
+    private void markPickable(int level, boolean filled) {
+        for (int index : DISTRIBUTOR.positionsOf(level)) {
+            int w = index >>> 6;
+            if (filled) {
+                pickable[w] |= (1L << index);
+                pickableWords[w >>> 6] |= (1L << w);
+            } else {
+                pickable[w] &= ~(1L << index);
+                if (pickable[w] == 0) {
+                    pickableWords[w >>> 6] &= ~(1L << w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the lowest non-empty level from the occupancy bitmap
+     *
+     * @return The level index, or -1 if all levels are empty
+     */
+    private int lowestNonEmptyLevel() {
+        for (int w = 0; w < occupied.length; w++) {
+            if (occupied[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(occupied[w]);
+            }
+        }
+        return -1;
     }
 
     /**
@@ -318,17 +654,14 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
         E oldItem = null;
         int inLevel = getLevel(newItem);
         if (size() > capacity) {      // the bag is full
-            int outLevel = 0;
-            while (emptyLevel(outLevel)) {
-                outLevel++;
-            }
+            int outLevel = lowestNonEmptyLevel();
             if (outLevel > inLevel) {           // ignore the item and exit
                 return newItem;
             } else {                            // remove an old item in the lowest non-empty level
                 oldItem = takeOutFirst(outLevel);
             }
         }
-        itemTable.get(inLevel).add(newItem);        // FIFO
+        linkLast(newItem, inLevel);             // FIFO
         mass += (inLevel + 1);                  // increase total mass
         refresh();                              // refresh the window
         return oldItem;		// TODO return null is a bad smell
@@ -340,15 +673,75 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      * @param level The current level
      * @return The first Item
      */
-    public E takeOutFirst(int level) {
-
-        E selected = itemTable.get(level).getFirst();
-        itemTable.get(level).removeFirst();
+    @SuppressWarnings("unchecked")
+    public synchronized E takeOutFirst(int level) {
+        E selected = (E) levelHead[level];
+        unlink(selected);
         mass -= (level + 1);
         refresh();
         return selected;
     }
 
+    /**
+     * Append an item at the end of a level
+     *
+     * @param item The Item to link in
+     * @param level The level to append to
+     */
+    private void linkLast(E item, int level) {
+        Item tail = levelTail[level];
+        item.setBagLevel(level);
+        item.setBagPrevious(tail);
+        item.setBagNext(null);
+        if (tail == null) {
+            levelHead[level] = item;
+        } else {
+            tail.setBagNext(item);
+        }
+        levelTail[level] = item;
+        if (levelSize[level]++ == 0) {
+            occupied[level >>> 6] |= (1L << level);
+            markPickable(level, true);
+        }
+    }
+
+    /**
+     * Remove an item from the level it is filed in, in constant time
+     *
+     * @param item The Item to unlink
+     */
+    private void unlink(Item item) {
+        int level = item.getBagLevel();
+        Item previous = item.getBagPrevious();
+        Item next = item.getBagNext();
+        if (previous == null) {
+            levelHead[level] = next;
+        } else {
+            previous.setBagNext(next);
+        }
+        if (next == null) {
+            levelTail[level] = previous;
+        } else {
+            next.setBagPrevious(previous);
+        }
+        if (--levelSize[level] == 0) {
+            occupied[level >>> 6] &= ~(1L << level);
+            markPickable(level, false);
+        }
+        unlinked(item);
+    }
+
+    /**
+     * Clear the level bookkeeping of an item that left the Bag
+     *
+     * @param item The Item that was unlinked
+     */
+    private static void unlinked(Item item) {
+        item.setBagLevel(-1);
+        item.setBagPrevious(null);
+        item.setBagNext(null);
+    }
+
     /**
      * To start displaying the Bag in a BagWindow; {@link nars.gui.BagWindow}
      * implements interface {@link BagObserver};
@@ -358,16 +751,32 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
      */
     public void addBagObserver(BagObserver<E> bagObserver, String title) {
         this.bagObserver = bagObserver;
-        bagObserver.post(toString());
+        pollingObserver = bagObserver.isPolling();
+        pushingObserver = !pollingObserver && !(bagObserver instanceof NullBagObserver);
+        bagObserver.post(snapshot());
         bagObserver.setTitle(title);
         bagObserver.setBag(this);
     }
 
+    /**
+     * To stop displaying the Bag, when the window of the observer is closed
+     *
+     * @param bagObserver The BagObserver to remove, left alone if another one
+     * has been set since
+     */
+    public void removeBagObserver(BagObserver<?> bagObserver) {
+        if (this.bagObserver == bagObserver) {
+            this.bagObserver = new NullBagObserver<>();
+            pollingObserver = false;
+            pushingObserver = false;
+        }
+    }
+
     /**
      * Resume display
      */
     public void play() {
-        bagObserver.post(toString());
+        bagObserver.post(snapshot());
     }
 
     /**
@@ -379,13 +788,39 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
 
     /**
      * Refresh display
+     * <p>
+     * A polling observer only gets the version counter bumped, so the display
+     * costs nothing per change
      */
     public void refresh() {
-        if (bagObserver != null && !(bagObserver instanceof NullBagObserver)) {
+        if (pollingObserver) {
+            version++;
+        } else if (pushingObserver) {
             bagObserver.refresh(toString());
         }
     }
 
+    /**
+     * Get the number of changes of the Bag, for a polling observer to detect
+     * whether its display is out of date
+     *
+     * @return The version counter
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Collect the content for a polling observer, holding the lock of the Bag
+     * so that the thread working on it waits until the content is read,
+     * whether it is running or idle
+     *
+     * @return The content as in {@link #toString()}
+     */
+    public synchronized String snapshot() {
+        return toString();
+    }
+
     /**
      * Collect Bag content into a String for display
      * @return A String representation of the content
@@ -396,9 +831,7 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
         for (int i = TOTAL_LEVEL; i >= showLevel; i--) {
             if (!emptyLevel(i - 1)) {
                 buf = buf.append("\n --- Level ").append(i).append(":\n ");
-                for (int j = 0; j < itemTable.get(i - 1).size(); j++) {
-                    buf = buf.append(itemTable.get(i - 1).get(j).toStringBrief()).append("\n ");
-                }
+                appendLevel(buf, i - 1, false);
             }
         }
         return buf.toString();
@@ -413,25 +846,37 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
         for (int i = TOTAL_LEVEL; i >= showLevel; i--) {
             if (!emptyLevel(i - 1)) {
                 buf = buf.append("\n --- LEVEL ").append(i).append(":\n ");
-                for (int j = 0; j < itemTable.get(i - 1).size(); j++) {
-                    buf = buf.append(itemTable.get(i - 1).get(j).toStringLong()).append("\n ");
-                }
+                appendLevel(buf, i - 1, true);
             }
         }
         buf.append(">>>> end of Bag").append(getClass().getSimpleName());
         return buf.toString();
     }
 
+    /**
+     * Append the items of a level for display, in FIFO order
+     *
+     * @param buf The buffer to append to
+     * @param level The level index
+     * @param full Whether to show the full content of the items
+     */
+    protected void appendLevel(StringBuffer buf, int level, boolean full) {
+        for (Item item = levelHead[level]; item != null; item = item.getBagNext()) {
+            buf.append(full ? item.toStringLong() : item.toStringBrief()).append("\n ");
+        }
+    }
+
     /**
      * show item Table Sizes
      */
     String showSizes() {
         StringBuilder buf = new StringBuilder(" ");
         int levels = 0;
-        for (LinkedList<E> items : itemTable) {
-            if ((items != null) && !items.isEmpty()) {
+        for (int i = 0; i < TOTAL_LEVEL; i++) {
+            int size = levelSize(i);
+            if (size > 0) {
                 levels++;
-                buf.append(items.size()).append(" ");
+                buf.append(size).append(" ");
             }
         }
         return "Levels: " + Integer.toString(levels) + ", sizes: " + buf;
@@ -444,20 +889,56 @@ public abstract class Bag<E extends Item> implements Iterable<E>{
         this.showLevel = showLevel;
     }
     
-    public ArrayList<LinkedList<E>> getItemTable() {
-        return itemTable;
+    /**
+     * Get the number of priority levels
+     *
+     * @return The number of levels of the Bag
+     */
+    public int levels() {
+        return TOTAL_LEVEL;
+    }
+
+    /**
+     * Get the firing threshold
+     *
+     * @return The level under which items are taken out one at a time
+     */
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+    /**
+     * Get the number of items in a level
+     *
+     * @param level The level index
+     * @return The number of items filed in that level
+     */
+    public int levelSize(int level) {
+        return levelSize[level];
+    }
+
+    /**
+     * Get the current sum of occupied levels
+     *
+     * @return The mass of the Bag
+     */
+    int mass() {
+        return mass;
     }
     
+    /**
+     * @return The name table, or null when the Bag is keyed by ids
+     */
     public HashMap<String, E> getNameTable(){
         return nameTable;
     }
     
     public boolean isEmpty(){
-        return nameTable.isEmpty();
+        return KEY_IDS ? idTable.isEmpty() : nameTable.isEmpty();
     }
     
     @Override
     public Iterator<E> iterator() {
-        return nameTable.values().iterator();
+        return KEY_IDS ? idTable.iterator() : nameTable.values().iterator();
     }
 }
@@ -56,4 +56,11 @@ public interface BagObserver<BagType extends Item> {
      * put in non-showing state
      */
     public abstract void stop();
+
+    /**
+     * Whether the observer pulls snapshots of the bag content at its own pace
+     * (see {@link Bag#snapshot()}), rather than being sent the content
+     * through {@link #refresh(String)} on every change of the bag
+     */
+    public abstract boolean isPolling();
 }
\ No newline at end of file
@@ -24,7 +24,6 @@
 package nars.storage;
 
 import nars.entity.Concept;
-import nars.main.Parameters;
 
 /**
  * Contains Concepts.
@@ -48,6 +47,15 @@ public class ConceptBag extends Bag<Concept> {
         super(memory);
         this.averagePriorityForgetting = averagePriorityForgetting;
     }
+    /** Constructor with a given capacity, for the stripes of a ConcurrentConceptBag
+     * @param memory The reference of memory
+     * @param averagePriorityForgetting Whether forgetting rate is proportional to average priority
+     * @param capacity The capacity of the bag
+     */
+    ConceptBag (Memory memory, boolean averagePriorityForgetting, int capacity) {
+        super(memory, capacity);
+        this.averagePriorityForgetting = averagePriorityForgetting;
+    }
     /**
      *
      * Get the (constant) capacity of ConceptBag
@@ -55,7 +63,7 @@ public class ConceptBag extends Bag<Concept> {
      */
     @Override
     protected int capacity() {
-        return Parameters.CONCEPT_BAG_SIZE;
+        return memory.getConfig().getConceptBagSize();
     }
     
     /**
@@ -71,4 +79,13 @@ public class ConceptBag extends Bag<Concept> {
         float forgetRate = averagePriority * memory.getConceptForgettingRate().get();
     	return forgetRate;
     }
+
+    /**
+     * Let the memory forget the dropped Concept
+     * @param concept The Concept dropped
+     */
+    @Override
+    protected void dropped(Concept concept) {
+        memory.conceptDropped(concept);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,444 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import nars.entity.Concept;
+
+/**
+ * A ConceptBag that can be used by several threads at the same time.
+ * <p>
+ * The Concepts are spread over stripes by the hash of their keys, each stripe
+ * being a ConceptBag with its share of the capacity and its own lock. The mass
+ * and size of every stripe are published in atomic arrays, so takeOut can
+ * choose a stripe with probability proportional to its mass without locking,
+ * after which the stripe chooses a level as usual. The selection thus stays
+ * priority-proportional over the whole bag, while overflow is decided within a
+ * stripe.
+ * <p>
+ * A Concept that has been taken out belongs to the thread that took it, until
+ * it is put back.
+ * <p>
+ * Every method of Bag that reads or changes the levels or the name table is
+ * delegated to the stripes; the levels and name table of the Bag itself are
+ * never made.
+ */
+public class ConcurrentConceptBag extends ConceptBag {
+
+    /**
+     * whether the stripes are keyed by the ids of the keys
+     */
+    private final boolean KEY_IDS;
+    /**
+     * the stripes, each guarded by the lock of the same index
+     */
+    private ConceptBag[] stripes;
+    /**
+     * locks of the stripes
+     */
+    private ReentrantLock[] locks;
+    /**
+     * mass of each stripe, updated under the lock of the stripe
+     */
+    private AtomicIntegerArray stripeMass;
+    /**
+     * number of Concepts in each stripe, updated under the lock of the stripe
+     */
+    private AtomicIntegerArray stripeSize;
+
+    /**
+     * Constructor
+     *
+     * @param memory The reference of memory
+     * @param averagePriorityForgetting Whether forgetting rate is proportional
+     * to average priority of the stripe
+     * @param stripeCount The number of stripes
+     */
+    public ConcurrentConceptBag(Memory memory, boolean averagePriorityForgetting, int stripeCount) {
+        super(memory, averagePriorityForgetting, 0);
+        KEY_IDS = memory.getConfig().isBagKeyIds();
+        int total = capacity();
+        stripes = new ConceptBag[stripeCount];
+        locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            int share = total / stripeCount + ((i < total % stripeCount) ? 1 : 0);
+            stripes[i] = new ConceptBag(memory, averagePriorityForgetting, share);
+            locks[i] = new ReentrantLock();
+        }
+        stripeMass = new AtomicIntegerArray(stripeCount);
+        stripeSize = new AtomicIntegerArray(stripeCount);
+    }
+
+    /**
+     * Empty all stripes; nothing to do when called from the Bag constructor,
+     * before the stripes are made
+     */
+    @Override
+    public void init() {
+        if (stripes == null) {
+            return;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                stripes[i].init();
+                publish(i);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            size += stripeSize.get(i);
+        }
+        return size;
+    }
+
+    @Override
+    int mass() {
+        int mass = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            mass += stripeMass.get(i);
+        }
+        return mass;
+    }
+
+    @Override
+    public float averagePriority() {
+        int size = size();
+        if (size == 0) {
+            return 0.01f;
+        }
+        float f = (float) mass() / (size * levels());
+        return (f > 1) ? 1.0f : f;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Concept it) {
+        int i = stripeOf(it);
+        locks[i].lock();
+        try {
+            return stripes[i].contains(it);
+        } finally {
+            locks[i].unlock();
+        }
+    }
+
+    @Override
+    public Concept get(String key) {
+        int i = stripeOf(key);
+        locks[i].lock();
+        try {
+            return stripes[i].get(key);
+        } finally {
+            locks[i].unlock();
+        }
+    }
+
+    @Override
+    public Concept get(long keyId, String key) {
+        int i = KEY_IDS ? stripeOf(keyId) : stripeOf(key);
+        locks[i].lock();
+        try {
+            return stripes[i].get(keyId, key);
+        } finally {
+            locks[i].unlock();
+        }
+    }
+
+    @Override
+    public boolean putIn(Concept newItem) {
+        int i = stripeOf(newItem);
+        boolean added;
+        locks[i].lock();
+        try {
+            added = stripes[i].putIn(newItem);
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+        refresh();
+        return added;
+    }
+
+    @Override
+    public boolean putBack(Concept oldItem) {
+        int i = stripeOf(oldItem);
+        boolean added;
+        locks[i].lock();
+        try {
+            added = stripes[i].putBack(oldItem);
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+        refresh();
+        return added;
+    }
+
+    /**
+     * Choose a stripe with probability proportional to its mass, and take a
+     * Concept out of it; a stripe locked by another thread is passed over for
+     * the next non-empty one, and only when all are busy is the chosen one
+     * waited for
+     *
+     * @return The selected Concept
+     */
+    @Override
+    public Concept takeOut() {
+        int mass = mass();
+        if (mass == 0) {
+            return null;
+        }
+        int r = ThreadLocalRandom.current().nextInt(mass);
+        int chosen = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            r -= stripeMass.get(i);
+            if (r < 0) {
+                chosen = i;
+                break;
+            }
+        }
+        for (int k = 0; k < stripes.length; k++) {
+            int i = (chosen + k) % stripes.length;
+            if (stripeMass.get(i) > 0 && locks[i].tryLock()) {
+                Concept selected = takeOutLocked(i);
+                if (selected != null) {
+                    return selected;
+                }
+            }
+        }
+        locks[chosen].lock();
+        return takeOutLocked(chosen);
+    }
+
+    /**
+     * Take a Concept out of a stripe whose lock is held, then release it
+     *
+     * @param i The index of the stripe
+     * @return The selected Concept, or null if the stripe is empty
+     */
+    private Concept takeOutLocked(int i) {
+        Concept selected;
+        try {
+            selected = stripes[i].takeOut();
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+        if (selected != null) {
+            refresh();
+        }
+        return selected;
+    }
+
+    @Override
+    public long getRelocations() {
+        long relocations = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                relocations += stripes[i].getRelocations();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return relocations;
+    }
+
+    @Override
+    public Concept pickOut(String key) {
+        int i = stripeOf(key);
+        Concept picked;
+        locks[i].lock();
+        try {
+            picked = stripes[i].pickOut(key);
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+        return picked;
+    }
+
+    @Override
+    public Concept pickOut(Concept item) {
+        int i = stripeOf(item);
+        Concept picked;
+        locks[i].lock();
+        try {
+            picked = stripes[i].pickOut(item);
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+        return picked;
+    }
+
+    @Override
+    protected void outOfBase(Concept oldItem) {
+        int i = stripeOf(oldItem);
+        locks[i].lock();
+        try {
+            stripes[i].outOfBase(oldItem);
+            publish(i);
+        } finally {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * Take out the first Concept of a level in the first stripe where the
+     * level is not empty
+     *
+     * @param level The level index
+     * @return The first Concept, or null if the level is empty in all stripes
+     */
+    @Override
+    public Concept takeOutFirst(int level) {
+        for (int i = 0; i < stripes.length; i++) {
+            Concept selected = null;
+            locks[i].lock();
+            try {
+                if (!stripes[i].emptyLevel(level)) {
+                    selected = stripes[i].takeOutFirst(level);
+                    publish(i);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+            if (selected != null) {
+                refresh();
+                return selected;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a level is empty in all stripes, for display only
+     */
+    @Override
+    protected boolean emptyLevel(int n) {
+        return levelSize(n) == 0;
+    }
+
+    @Override
+    public int levelSize(int level) {
+        int size = 0;
+        for (ConceptBag stripe : stripes) {
+            size += stripe.levelSize(level);
+        }
+        return size;
+    }
+
+    @Override
+    protected void appendLevel(StringBuffer buf, int level, boolean full) {
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                stripes[i].appendLevel(buf, level, full);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * @return null, as each stripe has its own name table
+     */
+    @Override
+    public HashMap<String, Concept> getNameTable() {
+        return null;
+    }
+
+    /**
+     * Iterate over a snapshot of the Concepts, taken one stripe at a time
+     */
+    @Override
+    public Iterator<Concept> iterator() {
+        ArrayList<Concept> snapshot = new ArrayList<>(size());
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                for (Concept c : stripes[i]) {
+                    snapshot.add(c);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    /**
+     * Publish the mass and size of a stripe whose lock is held
+     *
+     * @param i The index of the stripe
+     */
+    private void publish(int i) {
+        stripeMass.set(i, stripes[i].mass());
+        stripeSize.set(i, stripes[i].size());
+    }
+
+    /**
+     * The stripe of a Concept, from the same hash as its key in the stripe
+     */
+    private int stripeOf(Concept c) {
+        return KEY_IDS ? stripeOf(c.getKeyId()) : spread(c.getKey().hashCode());
+    }
+
+    private int stripeOf(String key) {
+        return KEY_IDS ? stripeOf(IdTable.idOf(key)) : spread(key.hashCode());
+    }
+
+    /**
+     * Take the high bits of the id, as the name tables use the low ones
+     */
+    private int stripeOf(long keyId) {
+        return (int) ((keyId >>> 33) % stripes.length);
+    }
+
+    /**
+     * Scramble a String hash into the high bits, as the name tables use the
+     * low ones
+     */
+    private int spread(int hash) {
+        return ((hash * 0x9E3779B9) >>> 16) % stripes.length;
+    }
+}
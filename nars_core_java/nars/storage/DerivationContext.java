@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.ArrayList;
+
+import nars.entity.Concept;
+import nars.entity.Sentence;
+import nars.entity.Stamp;
+import nars.entity.Task;
+import nars.entity.TaskLink;
+import nars.entity.TermLink;
+import nars.language.Term;
+
+/**
+ * The premises and intermediate results of the inference step going on in a
+ * thread, see {@link Memory#getContext()}.
+ * <p>
+ * In a parallel work cycle the context of a worker is deferred: the Tasks it
+ * derives, the lines it reports or records and its updates of other Concepts
+ * are kept here, and merged into the buffers, output, recorder and Concepts
+ * by Memory once all workers are done.
+ */
+public class DerivationContext {
+
+    /**
+     * The selected Term
+     */
+    public Term currentTerm;
+    /**
+     * The selected Concept
+     */
+    public Concept currentConcept;
+    /**
+     * The selected TaskLink
+     */
+    public TaskLink currentTaskLink;
+    /**
+     * The selected Task
+     */
+    public Task currentTask;
+    /**
+     * The selected TermLink
+     */
+    public TermLink currentBeliefLink;
+    /**
+     * The selected belief
+     */
+    public Sentence currentBelief;
+    /**
+     * The new Stamp
+     */
+    public Stamp newStamp;
+    /**
+     * Whether results wait for the end of the parallel work cycle
+     */
+    private final boolean deferred;
+    /**
+     * Serial numbers of the worker thread in a deferred context, null
+     * otherwise
+     */
+    final SerialGenerator.Block serials;
+    /**
+     * Tasks derived in a deferred context, in order of derivation
+     */
+    final ArrayList<Task> derivedTasks = new ArrayList<>();
+    /**
+     * Lines reported in a deferred context, in order of report
+     */
+    final ArrayList<String> reports = new ArrayList<>();
+    /**
+     * Lines for the inference recorder in a deferred context, in order
+     */
+    final ArrayList<String> records = new ArrayList<>();
+    /**
+     * Updates of the Concepts made in a deferred context, in order of update
+     */
+    final ArrayList<Runnable> updates = new ArrayList<>();
+
+    /**
+     * Constructor of the context of a thread working alone, where results
+     * are not deferred
+     */
+    public DerivationContext() {
+        this.deferred = false;
+        this.serials = null;
+    }
+
+    /**
+     * Constructor of the deferred context of a worker in a parallel work
+     * cycle
+     *
+     * @param serials The serial numbers of the worker thread
+     */
+    public DerivationContext(SerialGenerator.Block serials) {
+        this.deferred = true;
+        this.serials = serials;
+    }
+
+    /**
+     * @return Whether results wait for the end of the parallel work cycle
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+}
@@ -23,15 +23,22 @@
  */
 package nars.storage;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * A pseudo-random number generator, used in Bag.
  */
 class Distributor {
 
+    /** The distributors made so far, one per range, shared by all Bags */
+    private static final ConcurrentHashMap<Integer, Distributor> DISTRIBUTORS = new ConcurrentHashMap<>();
+
     /** Shuffled sequence of index numbers */
     private int order[];
     /** Capacity of the array */
     private int capacity;
+    /** Indexes in the array of each number, in increasing order */
+    private int positions[][];
 
     /**
      * For any number N < range, there is N+1 copies of it in the array, distributed as evenly as possible
@@ -53,6 +60,24 @@ class Distributor {
                 order[index] = rank - 1;
             }
         }
+        positions = new int[range][];
+        int[] count = new int[range];
+        for (rank = 0; rank < range; rank++) {
+            positions[rank] = new int[rank + 1];
+        }
+        for (index = 0; index < capacity; index++) {
+            rank = order[index];
+            positions[rank][count[rank]++] = index;
+        }
+    }
+
+    /**
+     * Get the shared distributor of a range, making it on first use
+     * @param range Range of valid numbers
+     * @return The distributor
+     */
+    static Distributor forRange(int range) {
+        return DISTRIBUTORS.computeIfAbsent(range, Distributor::new);
     }
 
     /**
@@ -64,6 +89,23 @@ class Distributor {
         return order[index];
     }
 
+    /**
+     * Get the indexes at which a number is picked
+     * @param number The number
+     * @return the indexes, in increasing order, not to be modified
+     */
+    int[] positionsOf(int number) {
+        return positions[number];
+    }
+
+    /**
+     * Get the capacity of the array
+     * @return the number of indexes
+     */
+    int capacity() {
+        return capacity;
+    }
+
     /**
      * Advance the index
      * @param index The current index
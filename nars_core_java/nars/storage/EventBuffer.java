@@ -163,8 +163,8 @@ public abstract class EventBuffer extends Buffer<Task> {
             if(Math.abs(t.getStamp().getOccurrenceTime() - newEvent.getStamp().getOccurrenceTime()) > duration)
                 continue;
             
-            this.getMemory().currentTask = newEvent;
-            this.getMemory().currentBelief = t.getSentence();
+            this.getMemory().getContext().currentTask = newEvent;
+            this.getMemory().getContext().currentBelief = t.getSentence();
             
             // check if the event has the same occurrence time with the one happens before the task
             boolean sequenceInduction = false;
@@ -214,7 +214,7 @@ public abstract class EventBuffer extends Buffer<Task> {
         // go over the failed anticipatio nlist and generate negative evidence and do the revision directly
         for (int i = 0; i < failedAnticipation.size(); i++) {
             
-            Stamp stamp = new Stamp(this.getMemory().getTime());
+            Stamp stamp = new Stamp(this.getMemory().newSerial(), this.getMemory().getTime());
             stamp.setEternal();
             Sentence sentence = new Sentence(failedAnticipation.get(i).getRelation(), Symbols.JUDGMENT_MARK, negaTruth, stamp);
             Concept c = this.getMemory().getConcept(sentence.getContent());
@@ -222,7 +222,7 @@ public abstract class EventBuffer extends Buffer<Task> {
             Sentence oldBelief = null;
             
             if(!c.getBeliefs().isEmpty())
-                oldBelief = c.evaluation(sentence, c.getBeliefs());
+                oldBelief = c.evaluation(sentence);
             
             //this.getMemory().generalInfoReport("Failed: " + sentence.getContent().getName());
             
@@ -235,9 +235,9 @@ public abstract class EventBuffer extends Buffer<Task> {
                 
                 if (newStamp.equals(oldStamp)) {  
                 } else if (LocalRules.revisible(sentence, oldBelief)) {
-                    this.getMemory().newStamp = Stamp.make(newStamp, oldStamp, this.getMemory().getTime());
-                    if (this.getMemory().newStamp != null) {
-                        this.getMemory().currentBelief = oldBelief;
+                    this.getMemory().getContext().newStamp = Stamp.make(newStamp, oldStamp, this.getMemory().getTime());
+                    if (this.getMemory().getContext().newStamp != null) {
+                        this.getMemory().getContext().currentBelief = oldBelief;
                         //this.getMemory().generalInfoReport("Revision");
                         LocalRules.revision(sentence, oldBelief, false, this.getMemory());
                     }
@@ -387,14 +387,14 @@ public abstract class EventBuffer extends Buffer<Task> {
                 // the expectation
                 Sentence belief = null;
                 if(!anticipation.getBeliefs().isEmpty()){
-                    belief = anticipation.getBeliefs().get(0);
+                    belief = anticipation.getBeliefs().first();
                 }
 
                 if(belief == null)
                     return;
                 // get ready for the detachment
-                this.getMemory().currentBelief = belief;
-                this.getMemory().currentTask = task;                            
+                this.getMemory().getContext().currentBelief = belief;
+                this.getMemory().getContext().currentTask = task;                            
                 
                 if(belief.getContent() instanceof Implication){        
                     
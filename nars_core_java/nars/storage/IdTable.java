@@ -0,0 +1,293 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import nars.entity.Item;
+
+/**
+ * A name table of a Bag keyed by the long id of the item keys, with open
+ * addressing and linear probing, so lookups neither box the key nor hash or
+ * compare Strings.
+ * <p>
+ * The id of a key is a 64-bit hash of it, computed once and cached by the
+ * Item or Term that owns the key. The keys of two items with the same id are
+ * still compared, with {@link Item#hasKey} or {@link Item#sameKey}, so that
+ * colliding keys stay apart; as a collision is rare, that comparison is in
+ * practice one per lookup, between equal keys.
+ *
+ * @param <E> The type of the Item in the table
+ */
+public class IdTable<E extends Item> implements Iterable<E> {
+
+    /** The id reserved for empty slots; {@link #idOf} never returns it */
+    private static final long EMPTY = 0;
+    /** Ids of the slots */
+    private long[] ids;
+    /** Items of the slots */
+    private Item[] items;
+    /** Number of items in the table */
+    private int size;
+    /** Maximum load, as a fraction of the slots */
+    private final float loadFactor;
+
+    /**
+     * Constructor
+     *
+     * @param capacity The expected number of items
+     * @param loadFactor The maximum fraction of occupied slots
+     */
+    public IdTable(int capacity, float loadFactor) {
+        this.loadFactor = loadFactor;
+        int slots = Integer.highestOneBit(Math.max(2, (int) (capacity / loadFactor)) - 1) << 1;
+        ids = new long[slots];
+        items = new Item[slots];
+    }
+
+    /**
+     * Compute the id of a key
+     *
+     * @param key The key of an Item, or the name of a Term
+     * @return A 64-bit hash of the key, never 0
+     */
+    public static long idOf(CharSequence key) {
+        long h = 0xcbf29ce484222325L;       // FNV-1a
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);                    // final avalanche, as in MurmurHash3
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (h == EMPTY) ? 1 : h;
+    }
+
+    /**
+     * The number of items in the table
+     *
+     * @return The number of items
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the table is empty
+     *
+     * @return Whether there is no item in the table
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the item with a given key
+     *
+     * @param id The id of the key
+     * @param key The key
+     * @return The item, or null
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long id, String key) {
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ids[i] != EMPTY; i = (i + 1) & mask) {
+            if ((ids[i] == id) && items[i].hasKey(key)) {
+                return (E) items[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the item with the key of a given one
+     *
+     * @param item The item, or another with the same key
+     * @return The item in the table, or null
+     */
+    @SuppressWarnings("unchecked")
+    public E get(E item) {
+        long id = item.getKeyId();
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ids[i] != EMPTY; i = (i + 1) & mask) {
+            if ((ids[i] == id) && items[i].sameKey(item)) {
+                return (E) items[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put an item in, replacing the item with the same key
+     *
+     * @param item The item
+     * @return The replaced item, or null
+     */
+    @SuppressWarnings("unchecked")
+    public E put(E item) {
+        long id = item.getKeyId();
+        int mask = ids.length - 1;
+        int i = slot(id, mask);
+        for (; ids[i] != EMPTY; i = (i + 1) & mask) {
+            if ((ids[i] == id) && items[i].sameKey(item)) {
+                E old = (E) items[i];
+                items[i] = item;
+                return old;
+            }
+        }
+        ids[i] = id;
+        items[i] = item;
+        if (++size > ids.length * loadFactor) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Remove the item with the key of a given one
+     *
+     * @param item The item, or another with the same key
+     * @return The removed item, or null
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(E item) {
+        long id = item.getKeyId();
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ids[i] != EMPTY; i = (i + 1) & mask) {
+            if ((ids[i] == id) && items[i].sameKey(item)) {
+                E old = (E) items[i];
+                shiftBack(i, mask);
+                size--;
+                return old;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if an item is in the table
+     *
+     * @param item The item
+     * @return Whether the table holds this very item
+     */
+    public boolean containsValue(E item) {
+        for (Item it : items) {
+            if (it == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove all items
+     */
+    public void clear() {
+        Arrays.fill(ids, EMPTY);
+        Arrays.fill(items, null);
+        size = 0;
+    }
+
+    /**
+     * The home slot of an id
+     */
+    private static int slot(long id, int mask) {
+        return (int) (id ^ (id >>> 32)) & mask;
+    }
+
+    /**
+     * Close the gap left at a removed slot by moving back the entries after
+     * it, so that no tombstones are needed
+     */
+    private void shiftBack(int gap, int mask) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (ids[i] == EMPTY) {
+                break;
+            }
+            int home = slot(ids[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {  // the entry may fill the gap
+                ids[gap] = ids[i];
+                items[gap] = items[i];
+                gap = i;
+            }
+        }
+        ids[gap] = EMPTY;
+        items[gap] = null;
+    }
+
+    /**
+     * Double the number of slots
+     */
+    private void grow() {
+        long[] oldIds = ids;
+        Item[] oldItems = items;
+        ids = new long[oldIds.length * 2];
+        items = new Item[oldIds.length * 2];
+        int mask = ids.length - 1;
+        for (int j = 0; j < oldIds.length; j++) {
+            if (oldIds[j] != EMPTY) {
+                int i = slot(oldIds[j], mask);
+                while (ids[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                ids[i] = oldIds[j];
+                items[i] = oldItems[j];
+            }
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while (i < items.length && items[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < items.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E item = (E) items[next];
+                next = advance(next + 1);
+                return item;
+            }
+        };
+    }
+}
@@ -66,7 +66,7 @@ public class InternalExperience extends EventBuffer{
             float quality = BudgetFunctions.truthToQuality(truth);
                         
             BudgetValue budget = new BudgetValue(priority, durability, quality);
-            Stamp stamp = new Stamp(Tense.Present, this.getMemory().getTime());
+            Stamp stamp = new Stamp(this.getMemory().newSerial(), Tense.Present, this.getMemory().getTime());
             stamp.setOccurrenceTime(this.getMemory().getTime());
             Sentence sentence = new Sentence(task.getContent(), Symbols.JUDGMENT_MARK, truth, stamp);
             newTask = new Task(sentence, budget);
@@ -82,7 +82,7 @@ public class InternalExperience extends EventBuffer{
             float quality = BudgetFunctions.truthToQuality(truth);
                         
             BudgetValue budget = new BudgetValue(priority, durability, quality);
-            Stamp stamp = new Stamp(Tense.Present, this.getMemory().getTime());
+            Stamp stamp = new Stamp(this.getMemory().newSerial(), Tense.Present, this.getMemory().getTime());
             Sentence sentence = new Sentence(operation, Symbols.JUDGMENT_MARK, truth, stamp);
             newTask = new Task(sentence, budget);
             
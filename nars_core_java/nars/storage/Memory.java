@@ -24,6 +24,11 @@
 package nars.storage;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import nars.mental_operator.Anticipate;
 import nars.mental_operator.Deactive;
@@ -44,6 +49,7 @@ import nars.inference.BudgetFunctions;
 import nars.io.IInferenceRecorder;
 import nars.io.NullInferenceRecorder;
 import nars.io.Symbols;
+import nars.language.CompoundTerm;
 import nars.language.Equivalence;
 import nars.language.Implication;
 import nars.language.Operation;
@@ -52,6 +58,7 @@ import nars.language.Tense;
 import nars.language.Term;
 import nars.main.Parameters;
 import nars.main.NAR;
+import nars.main.NARConfig;
 import nars.mental.Emotion;
 
 /**
@@ -59,6 +66,10 @@ import nars.mental.Emotion;
  */
 public class Memory {
 
+    /**
+     * Number of serials a worker thread reserves at a time
+     */
+    private static final int SERIAL_BLOCK_SIZE = 64;
     /**
      * Backward pointer to the reasoner
      */
@@ -87,39 +98,44 @@ public class Memory {
      */
     private final ArrayList<String> exportStrings;
     /**
-     * The selected Term
+     * The premises of the inference step going on in each thread
      */
-    public Term currentTerm;
+    private final ThreadLocal<DerivationContext> contexts = ThreadLocal.withInitial(DerivationContext::new);
     /**
-     * The selected Concept
+     * Sizes of the bags
      */
-    public Concept currentConcept;
+    private final NARConfig config;
     /**
-     * The selected TaskLink
+     * Compound terms made so far, held weakly
      */
-    public TaskLink currentTaskLink;
+    private final TermTable terms = new TermTable();
     /**
-     * The selected Task
+     * Atomic terms numbered for the codes of the Concepts
      */
-    public Task currentTask;
+    private final AtomTable atoms = new AtomTable();
     /**
-     * The selected TermLink
+     * Serial numbers of the new Stamps
      */
-    public TermLink currentBeliefLink;
+    private final SerialGenerator serials = new SerialGenerator();
     /**
-     * The selected belief
+     * Serial numbers reserved for each worker thread of the parallel work
+     * cycle, so that the workers do not all take them from the counter
      */
-    public Sentence currentBelief;
+    private final ThreadLocal<SerialGenerator.Block> serialBlocks = ThreadLocal.withInitial(() -> serials.newBlock(SERIAL_BLOCK_SIZE));
     /**
-     * The new Stamp
+     * The terms of the Concepts by structure, null unless the configuration
+     * asks for the index
      */
-    public Stamp newStamp;
-    
+    private final TermIndex termIndex;
+    /**
+     * Workers of the parallel work cycle, null when concepts are fired one
+     * per cycle
+     */
+    private final ForkJoinPool firingPool;
     /**
-     * The substitution that unify the common term in the Task and the Belief
-     * TODO unused
+     * The Concepts being fired by the workers of the parallel work cycle
      */
-    protected HashMap<Term, Term> substitute;
+    private final Set<Concept> firing = ConcurrentHashMap.newKeySet();
 
     public static Random randomNumber = new Random(1);
     
@@ -134,12 +150,22 @@ public class Memory {
      */
     public Memory(NAR reasoner) {
         this.reasoner = reasoner;
+        config = reasoner.getConfig();
         recorder = new NullInferenceRecorder();
-        concepts = new ConceptBag(this);
+        termIndex = config.isTermIndex() ? new TermIndex() : null;
+        if (config.getFiringThreads() > 1) {
+            concepts = new ConcurrentConceptBag(this, false, Math.max(config.getConceptBagStripes(), config.getFiringThreads()));
+            firingPool = new ForkJoinPool(config.getFiringThreads());
+        } else if (config.getConceptBagStripes() > 1) {
+            concepts = new ConcurrentConceptBag(this, false, config.getConceptBagStripes());
+            firingPool = null;
+        } else {
+            concepts = new ConceptBag(this);
+            firingPool = null;
+        }
         exportStrings = new ArrayList<>();
         operators = new LinkedHashMap();
         initOperators();
-        newStamp = null;
         emotion = new Emotion();
     }
     
@@ -162,6 +188,12 @@ public class Memory {
 
     public void init() {
         concepts.init();
+        terms.clear();
+        atoms.clear();
+        serials.reset();
+        if (termIndex != null) {
+            termIndex.clear();
+        }
         exportStrings.clear();
         reasoner.initTimer();
         randomNumber = new Random(1);
@@ -194,6 +226,9 @@ public class Memory {
      * @return a Concept or null
      */
     public Concept termToConcept(Term term) {
+        if (config.isBagKeyIds()) {
+            return concepts.get(term.getId(), term.getName());
+        }
         return nameToConcept(term.getName());
     }
 
@@ -207,38 +242,89 @@ public class Memory {
         if (!term.isConstant()) {
             return null;
         }
-        String n = term.getName();
-        Concept concept = concepts.get(n);
+        Concept concept = termToConcept(term);
         if (concept == null) {
+            if (term instanceof CompoundTerm) {
+                term = intern((CompoundTerm) term);    // so that the terms made later share it
+            }
             concept = new Concept(term, this); // the only place to make a new Concept
             boolean created = concepts.putIn(concept);
             if (!created) {
                 return null;
             }
+            if (termIndex != null) {
+                termIndex.add(term);
+            }
         }
         return concept;
     }
+
+    /**
+     * Forget a Concept dropped from the ConceptBag for lack of room <p> called
+     * in ConceptBag only
+     *
+     * @param concept The Concept dropped
+     */
+    public void conceptDropped(Concept concept) {
+        if (termIndex != null) {
+            termIndex.remove(concept.getTerm());
+        }
+    }
+
+    /**
+     * Get the terms of the Concepts that may unify with a pattern, a superset
+     * to be checked by Variable.unify <p> called in Concept.processQuestion
+     *
+     * @param pattern The term to be unified
+     * @return The candidate terms, none if there is no term index
+     */
+    public List<Term> unifiableTerms(Term pattern) {
+        if (termIndex == null) {
+            return Collections.emptyList();
+        }
+        return termIndex.unifiable(pattern);
+    }
+    
+    /**
+     * Get the configuration of the bags
+     *
+     * @return The configuration of the NAR
+     */
+    public NARConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the context of the inference step going on in the current thread
+     *
+     * @return The premises and intermediate results of the step
+     */
+    public DerivationContext getContext() {
+        return contexts.get();
+    }
     
     public Stamp getNewStamp(){        
-        if(newStamp == null){  
-            newStamp = new Stamp(getTime());
+        DerivationContext context = getContext();
+        if(context.newStamp == null){  
+            context.newStamp = new Stamp(newSerial(), getTime());
             resetOccurrenceTime();
         }
-        return newStamp;
+        return context.newStamp;
     }
     
     public Stamp setNewStamp(Stamp first, Stamp second, long time){
-        newStamp = new Stamp(first, second, time);
-        return newStamp;
+        DerivationContext context = getContext();
+        context.newStamp = new Stamp(first, second, time);
+        return context.newStamp;
     }
     
     public void resetOccurrenceTime(){     
-        newStamp.setOccurrenceTime(Stamp.ETERNAL);     
+        getContext().newStamp.setOccurrenceTime(Stamp.ETERNAL);     
     }
     
     /**
      * Get a Term for a given name of a Concept or Operator <p> called in
-     * StringParser and the make methods of compound terms.
+     * StringParser
      *
      * @param name the name of a concept or operator
      * @return a Term or null (if no Concept/Operator has this name)
@@ -251,6 +337,51 @@ public class Memory {
         return null;
     }
 
+    /**
+     * Intern a compound term just made, so that the next one made with the
+     * same structure is the same object; the name is not needed for that <p>
+     * called in the make methods of compound terms and in getConcept
+     *
+     * @param <T> The type of the term
+     * @param term The new term
+     * @return The interned term, the given one if no equal one was interned
+     * before; terms with variables, implications, equivalences and terms
+     * with an interval at any depth, which is not part of their structure,
+     * are returned as they are
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends CompoundTerm> T intern(T term) {
+        if (term.containVar() || (term instanceof Implication) || (term instanceof Equivalence)
+                || term.hasInterval()) {
+            return term;
+        }
+        return (T) terms.intern(term);
+    }
+
+    /**
+     * Get the table of atomic terms, which the codes of the Concepts refer to
+     * <p>
+     * called in Concept and TermCode
+     *
+     * @return The atom table
+     */
+    public AtomTable getAtoms() {
+        return atoms;
+    }
+
+    /**
+     * Get a serial number for a new Stamp
+     *
+     * @return A number no other Stamp of this memory has
+     */
+    public long newSerial() {
+        DerivationContext context = getContext();
+        if (context.isDeferred()) {
+            return context.serials.next();
+        }
+        return serials.next();
+    }
+
     /**
      * Get the current activation level of a concept.
      *
@@ -270,7 +401,7 @@ public class Memory {
      * @param b the new BudgetValue
      */
     public void activateConcept(Concept c, BudgetValue b) {
-        concepts.pickOut(c.getKey());
+        concepts.pickOut(c);
         BudgetFunctions.activate(c, b);
         concepts.putBack(c);
     }
@@ -285,8 +416,8 @@ public class Memory {
      * forward/backward correspondence
      */
     public void activatedTask(BudgetValue budget, Sentence sentence, Sentence candidateBelief) {
-        Task task = new Task(sentence, budget, currentTask, sentence, candidateBelief);
-        recorder.append("!!! Activated: " + task.toString() + "\n");
+        Task task = new Task(sentence, budget, getContext().currentTask, sentence, candidateBelief);
+        record("!!! Activated: " + task.toString() + "\n");
         if (sentence.isQuestion()) {
             float s = task.getBudget().totalBudget();
 //            float minSilent = reasoner.getMainWindow().silentW.value() / 100.0f;
@@ -296,7 +427,7 @@ public class Memory {
                 report(task.getSentence(), false, false);
             }
         }
-        reasoner.getInternalBuffer().putInSequenceList(task, getTime());
+        putInInternalBuffer(task);
     }
 
     /**
@@ -307,7 +438,7 @@ public class Memory {
     public void derivedTask(Task task) {
         
         if (task.getBudget().aboveThreshold()) {
-            recorder.append(" OUT: " + task + "\n");
+            record(" OUT: " + task + "\n");
             float budget = task.getBudget().totalBudget();
             float minSilent = reasoner.getSilenceValue().get() / 100.0f;
             
@@ -319,10 +450,57 @@ public class Memory {
             
             //generalInfoReport(task.getSentence().toString());
             
-            reasoner.getInternalBuffer().putInSequenceList(task, getTime());
+            putInInternalBuffer(task);
             
         } else {
-            recorder.append("!!! Ignored: " + task + "\n");
+            record("!!! Ignored: " + task + "\n");
+        }
+    }
+
+    /**
+     * Put a new task into the internal buffer, or keep it in the context until
+     * the end of a parallel work cycle. Called from Memory and
+     * Concept.reactionToGoal
+     *
+     * @param task the new task
+     */
+    public void putInInternalBuffer(Task task) {
+        DerivationContext context = getContext();
+        if (context.isDeferred()) {
+            context.derivedTasks.add(task);
+        } else {
+            reasoner.getInternalBuffer().putInSequenceList(task, getTime());
+        }
+    }
+
+    /**
+     * Add a line to the inference recorder, or keep it in the context until
+     * the end of a parallel work cycle, as the recorder is not thread-safe
+     *
+     * @param s The line to be recorded
+     */
+    public void record(String s) {
+        DerivationContext context = getContext();
+        if (context.isDeferred()) {
+            context.records.add(s);
+        } else {
+            recorder.append(s);
+        }
+    }
+
+    /**
+     * Update a Concept other than the one being fired, or keep the update in
+     * the context until the end of a parallel work cycle, so that the workers
+     * only read the Concepts they do not fire
+     *
+     * @param update the update of the Concept
+     */
+    public void updateConcept(Runnable update) {
+        DerivationContext context = getContext();
+        if (context.isDeferred()) {
+            context.updates.add(update);
+        } else {
+            update.run();
         }
     }
 
@@ -337,16 +515,17 @@ public class Memory {
      * @return 
      */
     public Task doublePremiseTask(Term newContent, TruthValue newTruth, BudgetValue newBudget) {
-        Stamp deriveStamp = newStamp.clone();
+        DerivationContext context = getContext();
+        Stamp deriveStamp = context.newStamp.clone();
         resetOccurrenceTime();
         
         Task newTask = null;
         
         if (newContent != null) {
-            Sentence newSentence = new Sentence(newContent, currentTask.getSentence().getPunctuation(), newTruth, deriveStamp);
+            Sentence newSentence = new Sentence(newContent, context.currentTask.getSentence().getPunctuation(), newTruth, deriveStamp);
             
             //System.out.println("Sentence: " + newSentence.getContent().getName());
-            newTask = new Task(newSentence, newBudget, currentTask, currentBelief);
+            newTask = new Task(newSentence, newBudget, context.currentTask, context.currentBelief);
             derivedTask(newTask);
         }
         
@@ -363,14 +542,14 @@ public class Memory {
      * @param revisible Whether the sentence is revisible
      */
     public void doublePremiseTask(Term newContent, TruthValue newTruth, BudgetValue newBudget, boolean revisible) {
-        
-        Stamp deriveStamp = newStamp.clone();
+        DerivationContext context = getContext();
+        Stamp deriveStamp = context.newStamp.clone();
         resetOccurrenceTime();
         
         if (newContent != null) {
-            Sentence taskSentence = currentTask.getSentence();
+            Sentence taskSentence = context.currentTask.getSentence();
             Sentence newSentence = new Sentence(newContent, taskSentence.getPunctuation(), newTruth, deriveStamp, revisible);
-            Task newTask = new Task(newSentence, newBudget, currentTask, currentBelief);
+            Task newTask = new Task(newSentence, newBudget, context.currentTask, context.currentBelief);
             //newTask.setElemOfSequenceBuffer(false);
             //System.out.println("777");
             derivedTask(newTask);
@@ -386,7 +565,7 @@ public class Memory {
      * @param newBudget The budget value in task
      */
     public void singlePremiseTask(Term newContent, TruthValue newTruth, BudgetValue newBudget) {
-        singlePremiseTask(newContent, currentTask.getSentence().getPunctuation(), newTruth, newBudget);
+        singlePremiseTask(newContent, getContext().currentTask.getSentence().getPunctuation(), newTruth, newBudget);
     }
 
     /**
@@ -399,25 +578,26 @@ public class Memory {
      * @param newBudget The budget value in task
      */
     public void singlePremiseTask(Term newContent, char punctuation, TruthValue newTruth, BudgetValue newBudget) {
-        Task parentTask = currentTask.getParentTask();
+        DerivationContext context = getContext();
+        Task parentTask = context.currentTask.getParentTask();
         if (parentTask != null && newContent.equals(parentTask.getContent())) { // circular structural inference
             return;
         }
         
         //System.out.println("Single: " + newContent.getName());
         
-        Sentence taskSentence = currentTask.getSentence();
-        if (taskSentence.isJudgment() || currentBelief == null) {
-            newStamp = new Stamp(taskSentence.getStamp(), getTime());
+        Sentence taskSentence = context.currentTask.getSentence();
+        if (taskSentence.isJudgment() || context.currentBelief == null) {
+            context.newStamp = new Stamp(taskSentence.getStamp(), getTime());
         } else {    // to answer a question with negation in NAL-5 --- move to activated task?
-            newStamp = new Stamp(currentBelief.getStamp(), getTime());
+            context.newStamp = new Stamp(context.currentBelief.getStamp(), getTime());
         }
         
-        Stamp deriveStamp = newStamp.clone();
+        Stamp deriveStamp = context.newStamp.clone();
         resetOccurrenceTime();
         
         Sentence newSentence = new Sentence(newContent, punctuation, newTruth, deriveStamp, taskSentence.getRevisible());
-        Task newTask = new Task(newSentence, newBudget, currentTask, null);
+        Task newTask = new Task(newSentence, newBudget, context.currentTask, null);
         //System.out.println("888");
         derivedTask(newTask);
     }
@@ -425,14 +605,19 @@ public class Memory {
     /* ---------- system working workCycle ---------- */
     /**
      * An atomic working cycle of the system: process new Tasks, then fire a
-     * concept <p> Called from Reasoner.cycle only
+     * concept, or several concepts in parallel <p> Called from Reasoner.cycle
+     * only
      *
      * @param clock The current time to be displayed
      */
     public void workCycle(long clock) {
         recorder.append(" --- " + clock + " ---\n");      
         processBuffer();
-        processConcept();    
+        if (firingPool != null) {
+            processConcepts();
+        } else {
+            processConcept();    
+        }
         //reasoner.getGlobalBuffer().refresh();
     }
     
@@ -461,20 +646,91 @@ public class Memory {
      * Select a concept to fire.
      */
     private void processConcept() {
-        currentConcept = concepts.takeOut();  
+        DerivationContext context = getContext();
+        context.currentConcept = concepts.takeOut();  
         
         //System.out.println(" * Selected Concept: " + currentConcept.getTerm());
            
-        if (currentConcept != null) {
-            currentTerm = currentConcept.getTerm();
-            recorder.append(" * Selected Concept: " + currentTerm + "\n");
+        if (context.currentConcept != null) {
+            context.currentTerm = context.currentConcept.getTerm();
+            recorder.append(" * Selected Concept: " + context.currentTerm + "\n");
             //System.out.println(" * Selected Concept: " + currentTerm + "\n");
-            concepts.putBack(currentConcept);   // current Concept remains in the bag all the time
+            concepts.putBack(context.currentConcept);   // current Concept remains in the bag all the time
             //generalInfoReport("Concept selected: " + currentConcept.toStringBrief());
-            currentConcept.fire();              // a working workCycle
+            context.currentConcept.fire();              // a working workCycle
+        }
+    }
+
+    /**
+     * Fire several concepts at once, one per worker, each in its own deferred
+     * context. The derived tasks, reports, recorded lines and updates of the
+     * Concepts are merged in worker order once all are done, so the buffers,
+     * output, recorder and Concepts are only written by this thread. The
+     * workers of a cycle thus only read the beliefs of other Concepts, and
+     * invokeAll orders those reads before the updates, which in turn come
+     * before the workers of the next cycle start. The Tasks shared between
+     * Concepts are written under their own lock.
+     */
+    private void processConcepts() {
+        List<Callable<DerivationContext>> workers = new ArrayList<>(config.getConceptsFiredPerCycle());
+        for (int i = 0; i < config.getConceptsFiredPerCycle(); i++) {
+            workers.add(this::fireConcept);
+        }
+        for (Future<DerivationContext> result : firingPool.invokeAll(workers)) {
+            DerivationContext context;
+            try {
+                context = result.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("concept firing failed", e.getCause());
+            }
+            for (String s : context.reports) {
+                exportString(s);
+            }
+            for (String s : context.records) {
+                recorder.append(s);
+            }
+            for (Task task : context.derivedTasks) {
+                reasoner.getInternalBuffer().putInSequenceList(task, getTime());
+            }
+            for (Runnable update : context.updates) {
+                update.run();
+            }
         }
     }
 
+    /**
+     * Select a concept and fire it in a deferred context; as in
+     * processConcept the concept remains in the bag, and a concept already
+     * fired by another worker is skipped
+     *
+     * @return The context, holding the derived tasks, reports and updates
+     */
+    private DerivationContext fireConcept() {
+        DerivationContext context = new DerivationContext(serialBlocks.get());
+        contexts.set(context);
+        try {
+            Concept concept = concepts.takeOut();
+            if (concept == null) {
+                return context;
+            }
+            concepts.putBack(concept);  // current Concept remains in the bag all the time
+            if (!firing.add(concept)) {
+                return context;
+            }
+            try {
+                context.currentConcept = concept;
+                context.currentTerm = concept.getTerm();
+                record(" * Selected Concept: " + context.currentTerm + "\n");
+                concept.fire();
+            } finally {
+                firing.remove(concept);
+            }
+        } finally {
+            contexts.remove();
+        }
+        return context;
+    }
+
     /**
      * Immediate processing of a new task, in constant time Local processing, in
      * one concept only
@@ -482,14 +738,15 @@ public class Memory {
      * @param task the task to be accepted
      */
     public void immediateProcess(Task task) {
-        currentTask = task; // one of the two places where this variable is set
+        DerivationContext context = getContext();
+        context.currentTask = task; // one of the two places where this variable is set
         recorder.append("!!! Insert: " + task + "\n");
         //System.out.println("!!! Insert: " + task + "\n");
-        currentTerm = task.getContent();
-        currentConcept = getConcept(currentTerm);// Creates a new concept
-        if (currentConcept != null) {
-            activateConcept(currentConcept, task.getBudget()); // initializes this concept
-            currentConcept.directProcess(task);
+        context.currentTerm = task.getContent();
+        context.currentConcept = getConcept(context.currentTerm);// Creates a new concept
+        if (context.currentConcept != null) {
+            activateConcept(context.currentConcept, task.getBudget()); // initializes this concept
+            context.currentConcept.directProcess(task);
         }
     }
 
@@ -513,13 +770,6 @@ public class Memory {
                     + ", exportStrings " + exportStrings);
             System.out.flush();
         }
-        if (exportStrings.isEmpty()) {
-            long timer = reasoner.updateTimer();
-            if (timer > 0) {
-                exportStrings.add(String.valueOf(timer));
-            }
-        }
-        
         long interval = 0;
         if(sentence.getContent() instanceof Implication)
             interval = ((Implication)(sentence.getContent())).getInterval();
@@ -571,6 +821,27 @@ public class Memory {
         if(interval > 0)
             s += " Interval is " + interval;
         //System.out.println("s: " + s);
+        DerivationContext context = getContext();
+        if (context.isDeferred()) {
+            context.reports.add(s);
+        } else {
+            exportString(s);
+        }
+    }
+
+    /**
+     * Add a reported line to exportStrings, preceded by the current value of
+     * the timer if exportStrings is empty
+     *
+     * @param s the line to be displayed
+     */
+    private void exportString(String s) {
+        if (exportStrings.isEmpty()) {
+            long timer = reasoner.updateTimer();
+            if (timer > 0) {
+                exportStrings.add(String.valueOf(timer));
+            }
+        }
         exportStrings.add(s);
     }
     
@@ -586,7 +857,7 @@ public class Memory {
      */
     public void executeTask(long time, Operation operation, TruthValue truth){
         
-        Stamp stamp = new Stamp(Tense.Present, time);
+        Stamp stamp = new Stamp(newSerial(), Tense.Present, time);
         Sentence sentence = new Sentence(operation, Symbols.JUDGMENT_MARK, truth, stamp);
         
         BudgetValue budgetForNewTask = new BudgetValue(Parameters.DEFAULT_FEEDBACK_PRIORITY, Parameters.DEFAULT_FEEDBACK_DURABILITY,
@@ -652,7 +923,7 @@ public class Memory {
      * @return 
      */
     public TruthValue getConceptBeliefTruth(Concept c){
-        return c.getBeliefs().get(0).getTruth();
+        return c.getBeliefs().first().getTruth();
     }
     
     public NAR getReasoner(){
@@ -690,10 +961,11 @@ public class Memory {
     
     @Override
     public String toString() {
+        DerivationContext context = getContext();
         return toStringLongIfNotNull(concepts, "concepts")
-                + toStringLongIfNotNull(currentTask, "currentTask")
-                + toStringLongIfNotNull(currentBeliefLink, "currentBeliefLink")
-                + toStringIfNotNull(currentBelief, "currentBelief");
+                + toStringLongIfNotNull(context.currentTask, "currentTask")
+                + toStringLongIfNotNull(context.currentBeliefLink, "currentBeliefLink")
+                + toStringIfNotNull(context.currentBelief, "currentBelief");
     }
 
     private String toStringLongIfNotNull(Bag<?> item, String title) {
@@ -42,7 +42,7 @@ public class NovelTaskBag extends Bag<Task> {
      * @return The capacity of NovelTaskBag
      */
     protected int capacity() {
-        return Parameters.TASK_BUFFER_SIZE;
+        return memory.getConfig().getNovelTaskBagSize();
     }
 
     /**
@@ -37,5 +37,9 @@ public class NullBagObserver<BagType extends Item> implements BagObserver<BagTyp
 	@Override
 	public void refresh(String string) {}
 	@Override
-	public void stop() {}    	
+	public void stop() {}
+	@Override
+	public boolean isPolling() {
+		return false;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The serial numbers of the new Stamps of a Memory, so that the evidence of
+ * independent reasoners in one JVM does not mix.
+ * <p>
+ * Numbers can be taken one at a time from any thread, or by blocks: a worker
+ * holding a {@link Block} numbers its stamps without touching the shared
+ * counter but once per block. Each reset starts a new epoch, and a block
+ * reserved in an earlier one is dropped rather than used, as the counter
+ * gives its numbers again.
+ */
+public class SerialGenerator {
+
+    /** The last number given */
+    private final AtomicLong last = new AtomicLong();
+    /** Number of resets so far */
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    /**
+     * A range of numbers reserved for one thread, refilled when used up or
+     * after a reset; not to be shared between threads
+     */
+    public static final class Block {
+
+        /** Where the numbers come from */
+        private final SerialGenerator generator;
+        /** Number of serials reserved at a time */
+        private final int size;
+        /** The epoch of the generator the numbers were reserved in */
+        private int epoch = -1;
+        /** The next number to give */
+        private long next;
+        /** The number after the last one reserved */
+        private long end;
+
+        private Block(SerialGenerator generator, int size) {
+            this.generator = generator;
+            this.size = size;
+        }
+
+        /**
+         * Get a new serial number
+         *
+         * @return A number no other stamp of the Memory has
+         */
+        public long next() {
+            if (next == end || epoch != generator.epoch.get()) {
+                epoch = generator.epoch.get();  // read first, so a reset in between only refills early
+                next = generator.reserve(size);
+                end = next + size;
+            }
+            return next++;
+        }
+    }
+
+    /**
+     * Get a new serial number
+     *
+     * @return The number after the last one given
+     */
+    public long next() {
+        return last.incrementAndGet();
+    }
+
+    /**
+     * Reserve consecutive serial numbers
+     *
+     * @param count The number of serials to reserve
+     * @return The first of them
+     */
+    public long reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("serials to reserve must be positive: " + count);
+        }
+        return last.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Make a block of serial numbers for a worker thread
+     *
+     * @param size The number of serials reserved at a time
+     * @return The block, reserving its first numbers when first used
+     */
+    public Block newBlock(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("block size must be positive: " + size);
+        }
+        return new Block(this, size);
+    }
+
+    /**
+     * Start numbering again from 1, when the Memory is reset; the blocks
+     * reserved so far are dropped when next used
+     */
+    public void reset() {
+        epoch.incrementAndGet();
+        last.set(0);
+    }
+}
@@ -24,7 +24,6 @@
 package nars.storage;
 
 import nars.entity.TaskLink;
-import nars.main.Parameters;
 
 /**
  * TaskLinkBag contains links to tasks.
@@ -44,7 +43,7 @@ public class TaskLinkBag extends Bag<TaskLink> {
      */
     @Override
     protected int capacity() {
-        return Parameters.TASK_LINK_BAG_SIZE;
+        return memory.getConfig().getTaskLinkBagSize();
     }
     
     /**
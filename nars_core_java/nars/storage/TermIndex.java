@@ -0,0 +1,280 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import nars.language.CompoundTerm;
+import nars.language.ImageExt;
+import nars.language.ImageInt;
+import nars.language.Term;
+import nars.language.Variable;
+
+/**
+ * A discrimination tree over the terms of the Concepts of a Memory, to find
+ * the terms that may unify with a pattern without trying them all.
+ * <p>
+ * A term is filed under the symbols of its nodes in prefix order: the name of
+ * an atom, the class and size of a compound (and the relation index of an
+ * image), or a wildcard for a variable of any type. The components of a
+ * commutative compound are not filed, as they unify in any order. A lookup
+ * follows the symbols of the pattern, and at a variable, in the pattern or in
+ * the tree, skips a whole term on the other side. What it returns is thus a
+ * superset of the terms that unify with the pattern, to be checked by
+ * {@link Variable#unify}.
+ */
+public class TermIndex {
+
+    /**
+     * A node of the tree, reached by a symbol
+     */
+    private static final class Node {
+
+        /** Number of terms following the symbol in prefix order */
+        private final int arity;
+        /** The nodes of the next symbols, null until there is one */
+        private HashMap<String, Node> children;
+        /** The node of a variable next, or null */
+        private Node variable;
+        /** The terms ending here, null until there is one */
+        private ArrayList<Term> terms;
+
+        Node(int arity) {
+            this.arity = arity;
+        }
+    }
+
+    /** The root, before any symbol */
+    private Node root = new Node(0);
+    /** Number of terms in the index */
+    private int size;
+
+    /**
+     * Add the term of a new Concept
+     *
+     * @param term The term
+     */
+    public synchronized void add(Term term) {
+        Node node = root;
+        ArrayList<Term> symbols = new ArrayList<>();
+        flatten(term, symbols);
+        for (Term t : symbols) {
+            node = child(node, t);
+        }
+        if (node.terms == null) {
+            node.terms = new ArrayList<>(1);
+        } else if (node.terms.contains(term)) {
+            return;
+        }
+        node.terms.add(term);
+        size++;
+    }
+
+    /**
+     * Remove the term of a Concept that is gone; the nodes left empty are
+     * kept, for the next terms with the same symbols
+     *
+     * @param term The term
+     */
+    public synchronized void remove(Term term) {
+        Node node = root;
+        ArrayList<Term> symbols = new ArrayList<>();
+        flatten(term, symbols);
+        for (Term t : symbols) {
+            node = (t instanceof Variable) ? node.variable
+                    : (node.children == null) ? null : node.children.get(symbolOf(t));
+            if (node == null) {
+                return;
+            }
+        }
+        if ((node.terms != null) && node.terms.remove(term)) {
+            size--;
+        }
+    }
+
+    /**
+     * Find the terms that may unify with a pattern
+     *
+     * @param pattern The pattern, usually with variables
+     * @return The candidate terms, in no particular order
+     */
+    public synchronized List<Term> unifiable(Term pattern) {
+        ArrayList<Term> symbols = new ArrayList<>();
+        flatten(pattern, symbols);
+        int[] ends = new int[symbols.size()];
+        ends(symbols, 0, ends);
+        ArrayList<Term> found = new ArrayList<>();
+        collect(root, symbols, ends, 0, found);
+        return found;
+    }
+
+    /**
+     * The number of terms in the index
+     *
+     * @return The size of the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Drop all terms
+     */
+    public synchronized void clear() {
+        root = new Node(0);
+        size = 0;
+    }
+
+    /**
+     * Follow the symbols of the pattern from a position on, collecting the
+     * terms at the end
+     *
+     * @param node The node reached
+     * @param symbols The nodes of the pattern, in prefix order
+     * @param ends The position after the subterm beginning at each position
+     * @param i The position in the pattern
+     * @param found Where the terms are collected
+     */
+    private static void collect(Node node, ArrayList<Term> symbols, int[] ends, int i, ArrayList<Term> found) {
+        if (i == symbols.size()) {
+            if (node.terms != null) {
+                found.addAll(node.terms);
+            }
+            return;
+        }
+        Term t = symbols.get(i);
+        if (t instanceof Variable) {            // any term of the tree
+            skip(node, 1, symbols, ends, i + 1, found);
+            return;
+        }
+        if (node.children != null) {
+            Node child = node.children.get(symbolOf(t));
+            if (child != null) {
+                collect(child, symbols, ends, i + 1, found);
+            }
+        }
+        if (node.variable != null) {            // any subterm of the pattern
+            collect(node.variable, symbols, ends, ends[i], found);
+        }
+    }
+
+    /**
+     * Skip whole terms in the tree, then go on with the pattern
+     *
+     * @param remaining The number of terms still to skip
+     */
+    private static void skip(Node node, int remaining, ArrayList<Term> symbols, int[] ends, int i, ArrayList<Term> found) {
+        if (remaining == 0) {
+            collect(node, symbols, ends, i, found);
+            return;
+        }
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                skip(child, remaining - 1 + child.arity, symbols, ends, i, found);
+            }
+        }
+        if (node.variable != null) {
+            skip(node.variable, remaining - 1, symbols, ends, i, found);
+        }
+    }
+
+    /**
+     * Compute where each subterm of a flattened term ends
+     *
+     * @return The position after the subterm beginning at i
+     */
+    private static int ends(ArrayList<Term> symbols, int i, int[] ends) {
+        int end = i + 1;
+        for (int k = 0; k < arityOf(symbols.get(i)); k++) {
+            end = ends(symbols, end, ends);
+        }
+        ends[i] = end;
+        return end;
+    }
+
+    /**
+     * Get or make the node following a symbol
+     */
+    private static Node child(Node node, Term t) {
+        if (t instanceof Variable) {
+            if (node.variable == null) {
+                node.variable = new Node(0);
+            }
+            return node.variable;
+        }
+        if (node.children == null) {
+            node.children = new HashMap<>();
+        }
+        String symbol = symbolOf(t);
+        Node child = node.children.get(symbol);
+        if (child == null) {
+            child = new Node(arityOf(t));
+            node.children.put(symbol, child);
+        }
+        return child;
+    }
+
+    /**
+     * List the nodes of a term in prefix order, not entering commutative
+     * compounds
+     */
+    private static void flatten(Term term, ArrayList<Term> symbols) {
+        symbols.add(term);
+        if (arityOf(term) > 0) {
+            for (Term t : ((CompoundTerm) term).getComponents()) {
+                flatten(t, symbols);
+            }
+        }
+    }
+
+    /**
+     * The number of components filed after a node
+     */
+    private static int arityOf(Term t) {
+        if ((t instanceof CompoundTerm) && !((CompoundTerm) t).isCommutative()) {
+            return ((CompoundTerm) t).size();
+        }
+        return 0;
+    }
+
+    /**
+     * The symbol of a node other than a variable: what the unification of two
+     * terms compares before their components
+     */
+    private static String symbolOf(Term t) {
+        if (!(t instanceof CompoundTerm)) {
+            return t.getName();
+        }
+        CompoundTerm c = (CompoundTerm) t;
+        String symbol = c.getClass().getSimpleName() + '/' + c.size();
+        if (c instanceof ImageExt) {
+            symbol += "/" + ((ImageExt) c).getRelationIndex();
+        } else if (c instanceof ImageInt) {
+            symbol += "/" + ((ImageInt) c).getRelationIndex();
+        }
+        return symbol;
+    }
+}
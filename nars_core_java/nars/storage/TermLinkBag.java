@@ -43,7 +43,7 @@ public class TermLinkBag extends Bag<TermLink> {
      * @return The capacity of TermLinkBag
      */
     protected int capacity() {
-        return Parameters.TERM_LINK_BAG_SIZE;
+        return memory.getConfig().getTermLinkBagSize();
     }
 
     /**
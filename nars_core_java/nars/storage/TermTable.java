@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 The OpenNARS authors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package nars.storage;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import nars.language.Term;
+
+/**
+ * The table of interned compound terms of a Memory, so that the terms made
+ * with the same structure are the same object.
+ * <p>
+ * A term is keyed by its structure: the cached hash of the compound, then its
+ * class and equals, which compares the components. The name of a term is not
+ * needed to find it, so a term found in the table never has its name built.
+ * The table only holds the terms weakly: a term no longer referred to by any
+ * task, link or concept is dropped from it by the garbage collector.
+ * <p>
+ * Only terms without variables are interned, as variables are renamed and
+ * substituted in place.
+ */
+public class TermTable {
+
+    /** Initial number of buckets, a power of two */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** The chains of entries, by hash */
+    private Entry[] buckets = new Entry[INITIAL_CAPACITY];
+    /** Number of entries, including those whose terms are collected */
+    private int count;
+    /** Where the collector puts the entries whose terms are gone */
+    private final ReferenceQueue<Term> collected = new ReferenceQueue<>();
+
+    /**
+     * A weak reference to a term, remembering the hash it is filed under
+     */
+    private static final class Entry extends WeakReference<Term> {
+
+        private final int hash;
+        private Entry next;
+
+        Entry(Term term, int hash, Entry next, ReferenceQueue<Term> queue) {
+            super(term, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Intern a new term, unless an equal one is there already
+     *
+     * @param term The term just made
+     * @return The interned term with the same structure, which is the given
+     * one if there was none
+     */
+    public synchronized Term intern(Term term) {
+        expunge();
+        int hash = term.hashCode();
+        int i = indexOf(hash, buckets.length);
+        for (Entry e = buckets[i]; e != null; e = e.next) {
+            if (e.hash == hash) {
+                Term old = e.get();
+                if ((old != null) && (old.getClass() == term.getClass()) && old.equals(term)) {
+                    return old;
+                }
+            }
+        }
+        buckets[i] = new Entry(term, hash, buckets[i], collected);
+        if (++count > buckets.length - (buckets.length >>> 2)) {
+            resize();
+        }
+        return term;
+    }
+
+    /**
+     * The number of entries, including those of terms collected since the
+     * last access
+     *
+     * @return The size of the table
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Drop all entries
+     */
+    public synchronized void clear() {
+        buckets = new Entry[INITIAL_CAPACITY];
+        count = 0;
+        while (collected.poll() != null) {
+        }
+    }
+
+    /**
+     * The bucket of a hash, spread so that the high bits count as well
+     */
+    private static int indexOf(int hash, int length) {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    /**
+     * Double the number of buckets
+     */
+    private void resize() {
+        Entry[] old = buckets;
+        buckets = new Entry[old.length << 1];
+        for (Entry e : old) {
+            while (e != null) {
+                Entry next = e.next;
+                int i = indexOf(e.hash, buckets.length);
+                e.next = buckets[i];
+                buckets[i] = e;
+                e = next;
+            }
+        }
+    }
+
+    /**
+     * Remove the entries of the terms the collector has dropped
+     */
+    private void expunge() {
+        Entry entry;
+        while ((entry = (Entry) collected.poll()) != null) {
+            int i = indexOf(entry.hash, buckets.length);
+            Entry previous = null;
+            for (Entry e = buckets[i]; e != null; previous = e, e = e.next) {
+                if (e == entry) {
+                    if (previous == null) {
+                        buckets[i] = e.next;
+                    } else {
+                        previous.next = e.next;
+                    }
+                    count--;
+                    break;
+                }
+            }
+        }
+    }
+}